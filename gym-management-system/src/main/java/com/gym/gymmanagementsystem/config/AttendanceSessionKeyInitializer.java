@@ -0,0 +1,128 @@
+package com.gym.gymmanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Makes sure attendance has the unique key on (user_id, attendance_date) that the check-in toggle upserts against.
+ * ddl-auto update only declares it from Attendance's @UniqueConstraint and silently gives up when the table already
+ * holds several sessions for one member on one day, which the old check-in code could write. Such days are merged
+ * into their earliest row (first check-in, last check-out) before the key is added. Without the key every check-in
+ * would fail, so the application refuses to start if it is still missing afterwards.
+ */
+@Component
+public class AttendanceSessionKeyInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceSessionKeyInitializer.class);
+
+    private static final Set<String> KEY_COLUMNS = Set.of("user_id", "attendance_date");
+
+    private static final String RANKED_SESSIONS = """
+            SELECT attendance_id,
+                   ROW_NUMBER() OVER (PARTITION BY user_id, attendance_date ORDER BY check_in_time, attendance_id) AS position,
+                   COUNT(*) OVER (PARTITION BY user_id, attendance_date) AS sessions,
+                   MAX(check_out_time) OVER (PARTITION BY user_id, attendance_date) AS last_check_out
+            FROM attendance
+            """;
+
+    private static final String POSTGRES_MERGE_SQL = """
+            UPDATE attendance a SET
+                check_out_time = r.last_check_out,
+                time_spent_minutes = CAST(FLOOR(EXTRACT(EPOCH FROM (r.last_check_out - a.check_in_time)) / 60) AS BIGINT),
+                version = a.version + 1
+            FROM (%s) r
+            WHERE a.attendance_id = r.attendance_id AND r.position = 1 AND r.sessions > 1
+            """.formatted(RANKED_SESSIONS);
+
+    private static final String POSTGRES_DELETE_SQL = """
+            DELETE FROM attendance a
+            USING (%s) r
+            WHERE a.attendance_id = r.attendance_id AND r.position > 1
+            """.formatted(RANKED_SESSIONS);
+
+    // Window functions keep MySQL from merging the derived table, so it may read the table being updated
+    private static final String MYSQL_MERGE_SQL = """
+            UPDATE attendance a
+            JOIN (%s) r ON a.attendance_id = r.attendance_id
+            SET a.version = a.version + 1,
+                a.time_spent_minutes = TIMESTAMPDIFF(MINUTE, a.check_in_time, r.last_check_out),
+                a.check_out_time = r.last_check_out
+            WHERE r.position = 1 AND r.sessions > 1
+            """.formatted(RANKED_SESSIONS);
+
+    private static final String MYSQL_DELETE_SQL = """
+            DELETE a FROM attendance a
+            JOIN (%s) r ON a.attendance_id = r.attendance_id
+            WHERE r.position > 1
+            """.formatted(RANKED_SESSIONS);
+
+    private static final String ADD_KEY_SQL =
+            "ALTER TABLE attendance ADD CONSTRAINT uk_attendance_user_date UNIQUE (user_id, attendance_date)";
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSessionKey() {
+        if (hasSessionKey()) {
+            return;
+        }
+        logger.warn("attendance has no unique key on (user_id, attendance_date); merging same-day sessions and adding it.");
+        String mergeSql = databasePlatform == DatabasePlatform.POSTGRESQL ? POSTGRES_MERGE_SQL : MYSQL_MERGE_SQL;
+        String deleteSql = databasePlatform == DatabasePlatform.POSTGRESQL ? POSTGRES_DELETE_SQL : MYSQL_DELETE_SQL;
+        Integer removed = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update(mergeSql);
+            return jdbcTemplate.update(deleteSql);
+        });
+        logger.info("Merged {} duplicate same-day attendance rows into their earliest session.", removed);
+
+        try {
+            jdbcTemplate.execute(ADD_KEY_SQL);
+        } catch (DataAccessException e) {
+            // Another instance may have added it meanwhile; the check below decides
+            logger.warn("Could not add uk_attendance_user_date: {}", e.getMostSpecificCause().getMessage());
+        }
+        if (!hasSessionKey()) {
+            throw new IllegalStateException("attendance still has no unique key on (user_id, attendance_date); "
+                    + "check-ins cannot work without it.");
+        }
+    }
+
+    private boolean hasSessionKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Set<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), "attendance", true, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String columnName = rs.getString("COLUMN_NAME");
+                    if (indexName != null && columnName != null) {
+                        columnsByIndex.computeIfAbsent(indexName, name -> new HashSet<>()).add(columnName.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columnsByIndex.containsValue(KEY_COLUMNS);
+        }));
+    }
+}
@@ -0,0 +1,31 @@
+package com.gym.gymmanagementsystem.config;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * The database products this application ships native SQL for.
+ * Detected once from the configured DataSource (see DatabasePlatformConfig).
+ */
+public enum DatabasePlatform {
+    POSTGRESQL,
+    MYSQL;
+
+    public static DatabasePlatform detect(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            if (productName != null && productName.toLowerCase().contains("postgres")) {
+                return POSTGRESQL;
+            }
+            if (productName != null && (productName.toLowerCase().contains("mysql") || productName.toLowerCase().contains("mariadb"))) {
+                return MYSQL;
+            }
+            throw new IllegalStateException("Unsupported database product: " + productName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine the database product from the DataSource", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.gym.gymmanagementsystem.config;
+
+import com.gym.gymmanagementsystem.service.AttendanceSummaryEngine;
+import com.gym.gymmanagementsystem.service.CheckInToggleEngine;
+import com.gym.gymmanagementsystem.service.MemberIdBlockSource;
+import com.gym.gymmanagementsystem.service.MySqlAttendanceSummaryEngine;
+import com.gym.gymmanagementsystem.service.MySqlCheckInToggleEngine;
+import com.gym.gymmanagementsystem.service.MySqlMemberIdBlockSource;
+import com.gym.gymmanagementsystem.service.MySqlRevenueSummaryEngine;
+import com.gym.gymmanagementsystem.service.PostgresAttendanceSummaryEngine;
+import com.gym.gymmanagementsystem.service.PostgresCheckInToggleEngine;
+import com.gym.gymmanagementsystem.service.PostgresMemberIdBlockSource;
+import com.gym.gymmanagementsystem.service.PostgresRevenueSummaryEngine;
+import com.gym.gymmanagementsystem.service.RevenueSummaryEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DatabasePlatformConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabasePlatformConfig.class);
+
+    @Bean
+    public DatabasePlatform databasePlatform(DataSource dataSource) {
+        DatabasePlatform platform = DatabasePlatform.detect(dataSource);
+        logger.info("Detected database platform: {}", platform);
+        return platform;
+    }
+
+    // Picks the summary SQL dialect matching the datasource, so the same service runs on PostgreSQL and MySQL
+    @Bean
+    public AttendanceSummaryEngine attendanceSummaryEngine(DatabasePlatform databasePlatform, JdbcTemplate jdbcTemplate) {
+        return switch (databasePlatform) {
+            case POSTGRESQL -> new PostgresAttendanceSummaryEngine(jdbcTemplate);
+            case MYSQL -> new MySqlAttendanceSummaryEngine(jdbcTemplate);
+        };
+    }
+
+    @Bean
+    public CheckInToggleEngine checkInToggleEngine(DatabasePlatform databasePlatform, JdbcTemplate jdbcTemplate) {
+        return switch (databasePlatform) {
+            case POSTGRESQL -> new PostgresCheckInToggleEngine(jdbcTemplate);
+            case MYSQL -> new MySqlCheckInToggleEngine(jdbcTemplate);
+        };
+    }
+
+    @Bean
+    public MemberIdBlockSource memberIdBlockSource(DatabasePlatform databasePlatform, JdbcTemplate jdbcTemplate,
+                                                   PlatformTransactionManager transactionManager) {
+        return switch (databasePlatform) {
+            case POSTGRESQL -> new PostgresMemberIdBlockSource(jdbcTemplate);
+            case MYSQL -> new MySqlMemberIdBlockSource(jdbcTemplate, transactionManager);
+        };
+    }
+
+    @Bean
+    public RevenueSummaryEngine revenueSummaryEngine(DatabasePlatform databasePlatform, JdbcTemplate jdbcTemplate) {
+        return switch (databasePlatform) {
+            case POSTGRESQL -> new PostgresRevenueSummaryEngine(jdbcTemplate);
+            case MYSQL -> new MySqlRevenueSummaryEngine(jdbcTemplate);
+        };
+    }
+}
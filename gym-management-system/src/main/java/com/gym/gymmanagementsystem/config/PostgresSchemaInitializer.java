@@ -0,0 +1,77 @@
+package com.gym.gymmanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * PostgreSQL-only schema objects that JPA annotations cannot express (extensions, GIN, expression and partial indexes),
+ * plus column type changes that ddl-auto update does not apply to existing tables.
+ * Runs after Hibernate's ddl-auto update; every statement is idempotent and a failure only costs performance,
+ * so it is logged rather than stopping the application (e.g. when the database user may not create extensions).
+ */
+@Component
+public class PostgresSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresSchemaInitializer.class);
+
+    private static final List<String> STATEMENTS = List.of(
+            // Money columns created as double precision before Payment moved to paise with MoneyConverter;
+            // the DO blocks only rewrite a table while one of its columns still has the old type.
+            """
+            DO $$ BEGIN
+                IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = current_schema()
+                           AND table_name = 'payments' AND column_name = 'amount' AND data_type = 'double precision') THEN
+                    ALTER TABLE payments
+                        ALTER COLUMN amount TYPE numeric(12,2) USING round(amount::numeric, 2),
+                        ALTER COLUMN due_amount TYPE numeric(12,2) USING round(due_amount::numeric, 2),
+                        ALTER COLUMN total_membership_fee TYPE numeric(12,2) USING round(total_membership_fee::numeric, 2);
+                END IF;
+            END $$""",
+            """
+            DO $$ BEGIN
+                IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = current_schema()
+                           AND table_name = 'daily_revenue_summary' AND column_name = 'amount_total' AND data_type = 'double precision') THEN
+                    ALTER TABLE daily_revenue_summary
+                        ALTER COLUMN amount_total TYPE numeric(14,2) USING round(amount_total::numeric, 2),
+                        ALTER COLUMN due_total TYPE numeric(14,2) USING round(due_total::numeric, 2),
+                        ALTER COLUMN fee_total TYPE numeric(14,2) USING round(fee_total::numeric, 2);
+                END IF;
+            END $$""",
+            // Trigram indexes let the '%query%' LIKE predicates of UserRepository.findBySearchQuery use an index.
+            // The indexed expressions must match what Hibernate renders for that query.
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_contact_number_trgm ON users USING gin (lower(contact_number) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_user_id_text_trgm ON users USING gin ((CAST(user_id AS text)) gin_trgm_ops)",
+            // Covers only payments that still have a due, so the dues queries in PaymentRepository stay small as
+            // settled history grows. Those queries must keep the literal 'dueAmount > 0' for the planner to use it.
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_outstanding_due ON payments (payment_date, payment_id) WHERE due_amount > 0"
+    );
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPostgresOnlyObjects() {
+        if (databasePlatform != DatabasePlatform.POSTGRESQL) {
+            return;
+        }
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                logger.warn("Skipping PostgreSQL schema statement [{}]: {}", statement, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gym.gymmanagementsystem.controller;
 
 import com.gym.gymmanagementsystem.dto.AttendanceDTO;
 import com.gym.gymmanagementsystem.dto.AttendanceResponseDTO;
+import com.gym.gymmanagementsystem.dto.CheckOutAllResultDTO;
 import com.gym.gymmanagementsystem.dto.ErrorResponseDTO; // NEW IMPORT
 import com.gym.gymmanagementsystem.model.Attendance;
 import com.gym.gymmanagementsystem.service.AttendanceService;
@@ -16,6 +17,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -92,6 +94,20 @@ public class AttendanceController {
         return ResponseEntity.ok(attendancePage);
     }
 
+    // Keyset variant of /all for deep scrolling: pass the previous page's nextCursor as 'after'
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getAttendanceByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAttendanceRecordsAfter(after, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body(new ErrorResponseDTO(e.getMessage(), HttpStatus.BAD_REQUEST.value(), System.currentTimeMillis()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAttendance(@PathVariable("id") Integer attendanceId) {
         try {
@@ -121,10 +137,16 @@ public class AttendanceController {
     @PostMapping("/checkout-all")
     public ResponseEntity<String> checkOutAll() {
         try {
-            int checkedOutCount = attendanceService.checkOutAllUsers();
+            CheckOutAllResultDTO result = attendanceService.checkOutAllUsers();
+            int checkedOutCount = result.getCheckedOutCount();
             String message = checkedOutCount > 0
                              ? String.format("Successfully checked out %d active users.", checkedOutCount)
-                             : "No users found checked in today.";
+                             : result.getSkippedUsers().isEmpty() ? "No users found checked in today." : "No users were checked out.";
+            if (!result.getSkippedUsers().isEmpty()) {
+                message += " Skipped " + result.getSkippedUsers().size() + ": " + result.getSkippedUsers().stream()
+                        .map(s -> s.getUserName() + " (ID: " + s.getUserId() + ") - " + s.getReason())
+                        .collect(Collectors.joining("; ")) + ".";
+            }
 
             if(checkedOutCount > 0) {
                 attendanceSummaryService.generateAttendanceSummaries();
@@ -1,8 +1,11 @@
 package com.gym.gymmanagementsystem.controller;
 
-import com.gym.gymmanagementsystem.model.User;
 import com.gym.gymmanagementsystem.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,12 +14,15 @@ import java.util.List;
 import java.util.Map;
 
 import com.gym.gymmanagementsystem.dto.ExpiringMembershipDTO; // New import
+import com.gym.gymmanagementsystem.dto.MemberSummaryDTO;
 
 @RestController
 @RequestMapping("/api/dashboard")
 @CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
 public class DashboardController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private DashboardService dashboardService;
 
@@ -54,15 +60,21 @@ public class DashboardController {
     }
 
     @GetMapping("/users/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String query) {
-        // This search will now fetch Users without planAssignments directly
-        List<User> users = dashboardService.searchUsers(query);
+    public ResponseEntity<List<MemberSummaryDTO>> searchUsers(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        // Lightweight hits (userId, name, contactNumber, membershipStatus) from the in-memory index
+        List<MemberSummaryDTO> users = dashboardService.searchUsers(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
         return ResponseEntity.ok(users);
     }
 
     @GetMapping("/users/filter-status")
-    public ResponseEntity<List<User>> filterUsersByStatus(@RequestParam String status) {
-        List<User> users = dashboardService.filterUsersByStatus(status);
+    public ResponseEntity<Page<MemberSummaryDTO>> filterUsersByStatus(
+            @RequestParam String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("name", "userId"));
+        Page<MemberSummaryDTO> users = dashboardService.filterUsersByStatus(status, pageable);
         return ResponseEntity.ok(users);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.gym.gymmanagementsystem.controller;
+
+import com.gym.gymmanagementsystem.service.DataFileFormat;
+import com.gym.gymmanagementsystem.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // Full-table downloads, e.g. GET /api/export/attendance?format=ndjson (format: csv (default) or ndjson)
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        return export(ExportService.Dataset.USERS, "users", format);
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(defaultValue = "csv") String format) {
+        return export(ExportService.Dataset.PAYMENTS, "payments", format);
+    }
+
+    @GetMapping("/attendance")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(@RequestParam(defaultValue = "csv") String format) {
+        return export(ExportService.Dataset.ATTENDANCE, "attendance", format);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportService.Dataset dataset, String fileName, String format) {
+        DataFileFormat fileFormat = DataFileFormat.fromString(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + fileFormat.getFileExtension() + "\"")
+                .body(exportService.export(dataset, fileFormat));
+    }
+}
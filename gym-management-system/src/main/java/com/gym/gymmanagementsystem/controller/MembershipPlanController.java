@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -38,6 +39,12 @@ public class MembershipPlanController {
         return ResponseEntity.ok(plans);
     }
 
+    // Hit/miss counters of the in-process plan cache, to confirm plan lookups stay off the database
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Long>> getPlanCacheStats() {
+        return ResponseEntity.ok(membershipPlanService.getPlanCacheStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MembershipPlan> getPlanById(@PathVariable("id") Integer planId) {
         Optional<MembershipPlan> plan = membershipPlanService.getPlanById(planId);
@@ -1,9 +1,11 @@
 package com.gym.gymmanagementsystem.controller;
 
 import com.gym.gymmanagementsystem.dto.ErrorResponseDTO;
+import com.gym.gymmanagementsystem.dto.MemberDueSummaryDTO;
 import com.gym.gymmanagementsystem.dto.PaymentDTO;
 import com.gym.gymmanagementsystem.dto.PaymentResponseDTO;
 import com.gym.gymmanagementsystem.service.PaymentService;
+import com.gym.gymmanagementsystem.service.RevenueSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,8 +25,12 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173", "https://srfitness-admin.netlify.app"})
 public class PaymentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PaymentService paymentService;
+    @Autowired
+    private RevenueSummaryService revenueSummaryService;
 
     @PostMapping
     public ResponseEntity<?> addPayment(@Valid @RequestBody PaymentDTO paymentDTO) {
@@ -65,6 +71,20 @@ public class PaymentController {
         return ResponseEntity.ok(paymentsPage);
     }
 
+    // Keyset variant of GET /api/payments (newest first): pass the previous page's nextCursor as 'after'
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getPaymentsByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsAfter(after, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body(new ErrorResponseDTO(e.getMessage(), HttpStatus.BAD_REQUEST.value(), System.currentTimeMillis()));
+        }
+    }
+
     // NEW ENDPOINT: To fetch outstanding due payments
     @GetMapping("/outstanding-dues")
     public ResponseEntity<List<PaymentResponseDTO>> getOutstandingDuePayments() {
@@ -72,6 +92,33 @@ public class PaymentController {
         return ResponseEntity.ok(outstandingDues);
     }
 
+    // Paged variant of /outstanding-dues; sort by paymentDate, dueAmount, userName or paymentId
+    @GetMapping("/outstanding-dues/page")
+    public ResponseEntity<Page<PaymentResponseDTO>> getOutstandingDuePaymentsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "paymentDate,desc") String[] sort) {
+        String sortField = List.of("paymentDate", "dueAmount", "userName", "paymentId").contains(sort[0]) ? sort[0] : "paymentDate";
+        Sort.Direction direction = sort.length > 1 && sort[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        // paymentId breaks ties so rows do not move between pages
+        Sort sortBy = Sort.by(direction, sortField).and(Sort.by(direction, "paymentId"));
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sortBy);
+        return ResponseEntity.ok(paymentService.getOutstandingDuePayments(pageable));
+    }
+
+    // Outstanding dues totalled per member, largest total first by default; sort by totalDueAmount, oldestDueDate or userName
+    @GetMapping("/outstanding-dues/by-member")
+    public ResponseEntity<Page<MemberDueSummaryDTO>> getOutstandingDuesByMember(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "totalDueAmount,desc") String[] sort) {
+        String sortField = List.of("totalDueAmount", "oldestDueDate", "userName").contains(sort[0]) ? sort[0] : "totalDueAmount";
+        Sort.Direction direction = sort.length > 1 && sort[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sortBy = Sort.by(direction, sortField).and(Sort.by(Sort.Direction.ASC, "userId"));
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sortBy);
+        return ResponseEntity.ok(paymentService.getOutstandingDuesByMember(pageable));
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getPaymentsByUserId(@PathVariable("userId") Integer userId) {
         try {
@@ -91,6 +138,18 @@ public class PaymentController {
         return ResponseEntity.ok(analytics);
     }
 
+    // Recomputes the daily revenue rollup from the payments table (also runs nightly)
+    @PostMapping("/analytics/rebuild-summary")
+    public ResponseEntity<String> rebuildRevenueSummary() {
+        try {
+            int buckets = revenueSummaryService.rebuild();
+            return ResponseEntity.ok("Daily revenue summary rebuilt: " + buckets + " buckets.");
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                 .body("Failed to rebuild daily revenue summary: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePayment(@PathVariable("id") Integer paymentId) {
         try {
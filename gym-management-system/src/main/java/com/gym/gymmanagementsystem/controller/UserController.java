@@ -1,8 +1,11 @@
 package com.gym.gymmanagementsystem.controller;
 
 import com.gym.gymmanagementsystem.dto.UserDTO;
+import com.gym.gymmanagementsystem.dto.UserImportResultDTO;
 import com.gym.gymmanagementsystem.dto.UserResponseDTO;
 import com.gym.gymmanagementsystem.model.User;
+import com.gym.gymmanagementsystem.service.DataFileFormat;
+import com.gym.gymmanagementsystem.service.UserImportService;
 import com.gym.gymmanagementsystem.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +17,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 @RestController
@@ -23,6 +28,8 @@ public class UserController {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserImportService userImportService;
 
     @PostMapping
     public ResponseEntity<User> addUser(@Valid @RequestBody UserDTO userDTO) {
@@ -34,6 +41,14 @@ public class UserController {
         }
     }
 
+    // Bulk import: the raw request body is a CSV file (text/csv, with header row) or NDJSON (application/x-ndjson)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<UserImportResultDTO> importUsers(
+            @RequestHeader("Content-Type") String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body, DataFileFormat.fromString(contentType)));
+    }
+
     @GetMapping
     public ResponseEntity<Page<UserResponseDTO>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
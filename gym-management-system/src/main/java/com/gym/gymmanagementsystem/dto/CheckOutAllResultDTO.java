@@ -0,0 +1,15 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckOutAllResultDTO {
+    private int checkedOutCount;
+    private List<SkippedCheckOutDTO> skippedUsers; // Open sessions left as they were, with the reason
+}
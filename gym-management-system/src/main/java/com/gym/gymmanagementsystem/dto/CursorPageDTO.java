@@ -0,0 +1,17 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor; // Pass back as 'after' to get the next page; null on the last page
+    private boolean hasNext;
+    private Long totalElements; // Only filled when includeTotal=true; may be up to a minute old
+}
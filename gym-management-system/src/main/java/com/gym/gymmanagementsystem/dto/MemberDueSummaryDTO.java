@@ -0,0 +1,20 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Outstanding dues rolled up per member for the dues screen
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberDueSummaryDTO {
+    private Integer userId;
+    private String userName;
+    private String contactNumber;
+    private Long outstandingPayments; // Payments of this member that still have a due
+    private Double totalDueAmount;
+    private LocalDate oldestDueDate; // Payment date of the oldest of those payments
+}
@@ -0,0 +1,16 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Narrow member row for dropdowns and dashboard lists, instead of serializing the User entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberSummaryDTO {
+    private Integer userId;
+    private String name;
+    private String contactNumber;
+    private String membershipStatus;
+}
@@ -0,0 +1,15 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SkippedCheckOutDTO {
+    private Integer attendanceId;
+    private Integer userId;
+    private String userName;
+    private String reason;
+}
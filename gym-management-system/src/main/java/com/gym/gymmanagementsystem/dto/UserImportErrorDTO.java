@@ -0,0 +1,13 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportErrorDTO {
+    private long lineNumber; // 1-based line in the uploaded file (the CSV header is line 1)
+    private String message;
+}
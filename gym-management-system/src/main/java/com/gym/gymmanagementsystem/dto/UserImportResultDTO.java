@@ -0,0 +1,16 @@
+package com.gym.gymmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultDTO {
+    private int importedCount;
+    private int failedCount;
+    private List<UserImportErrorDTO> errors;
+}
@@ -7,7 +7,16 @@ import java.time.LocalDate; // NEW IMPORT: for attendanceDate
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
-@Table(name = "attendance") // REVERTED: Now points to the *temporary* 'attendance' table
+@Table(name = "attendance", indexes = { // REVERTED: Now points to the *temporary* 'attendance' table
+    @Index(name = "idx_attendance_attendance_date", columnList = "attendance_date"),
+    @Index(name = "idx_attendance_check_out_time", columnList = "check_out_time"),
+    // Serves the keyset listing's ORDER BY check_in_time DESC, attendance_id DESC and its seek predicate
+    @Index(name = "idx_attendance_check_in_time_id", columnList = "check_in_time, attendance_id")
+}, uniqueConstraints = {
+    // One session per member per day; the check-in toggle upserts against this key.
+    // AttendanceSessionKeyInitializer adds it where ddl-auto could not (existing same-day duplicates).
+    @UniqueConstraint(name = "uk_attendance_user_date", columnNames = {"user_id", "attendance_date"})
+})
 @Data
 @NamedEntityGraph(
     name = "Attendance.withUser",
@@ -38,4 +47,10 @@ public class Attendance {
 
     @Column(name = "attendance_date", nullable = false) // NEW/CONFIRMED: Maps to the new 'attendance_date' in the temporary table
     private LocalDate attendanceDate; // Field name
+
+    // Optimistic lock; the native check-in and bulk check-out statements bump it too.
+    // The DB default backfills existing rows and covers rows inserted by the check-in upsert.
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.gym.gymmanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_revenue_summary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_revenue_summary_bucket", columnNames = {"summary_date", "payment_method", "membership_plan_id"})
+})
+@Data
+@NoArgsConstructor
+public class DailyRevenueSummary {
+
+    // Stored instead of NULL for payments without a plan: NULLs never collide in the unique key, so upserts would duplicate the bucket
+    public static final int NO_PLAN = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "summary_id")
+    private Long summaryId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate; // payments.payment_date
+
+    @Column(name = "payment_method", nullable = false)
+    private String paymentMethod;
+
+    @Column(name = "membership_plan_id", nullable = false)
+    private Integer membershipPlanId; // NO_PLAN for ad-hoc payments
+
+    // Totals are paise (see Money); the columns hold rupees as NUMERIC(14,2)
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "amount_total", nullable = false, precision = 14, scale = 2)
+    private long amountTotal;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "due_total", nullable = false, precision = 14, scale = 2)
+    private long dueTotal;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "fee_total", nullable = false, precision = 14, scale = 2)
+    private long feeTotal;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount; // Drops to 0 once every payment in the bucket is deleted; readers skip such rows
+}
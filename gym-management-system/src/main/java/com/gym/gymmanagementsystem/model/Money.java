@@ -0,0 +1,32 @@
+package com.gym.gymmanagementsystem.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Payment amounts are held as a whole number of paise (1 rupee = 100 paise), so sums and due arithmetic are exact.
+ * Rupees only appear at the edges: the NUMERIC columns (see {@link MoneyConverter}) and the rupee values in DTOs.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    // BigDecimal.valueOf goes through the shortest decimal representation, so 0.285 becomes 29 paise, not 28
+    public static long toPaise(double rupees) {
+        return toPaise(BigDecimal.valueOf(rupees));
+    }
+
+    public static long toPaise(BigDecimal rupees) {
+        return rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toRupeeDecimal(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    // Nearest double to the exact rupee value, for DTOs and analytics responses
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+}
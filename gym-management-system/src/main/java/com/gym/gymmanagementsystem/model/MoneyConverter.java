@@ -0,0 +1,21 @@
+package com.gym.gymmanagementsystem.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// Maps a paise amount to a NUMERIC rupee column, so the stored values stay readable and exact
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long paise) {
+        return paise != null ? Money.toRupeeDecimal(paise) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal rupees) {
+        return rupees != null ? Money.toPaise(rupees) : null;
+    }
+}
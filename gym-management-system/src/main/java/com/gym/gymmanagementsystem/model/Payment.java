@@ -5,8 +5,16 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_payment_date", columnList = "payment_date")
+})
 @Data
+@NamedEntityGraph(
+    name = "Payment.withUser",
+    attributeNodes = {
+        @NamedAttributeNode("user")
+    }
+)
 public class Payment {
 
     @Id
@@ -16,14 +24,18 @@ public class Payment {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
-    @Column(nullable = false)
-    private Double amount;
-
-    @Column(name = "due_amount", nullable = false)
-    private Double dueAmount;
-
-    @Column(name = "total_membership_fee")
-    private Double totalMembershipFee;
+    // Money fields are paise (see Money); the columns hold rupees as NUMERIC(12,2)
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 12, scale = 2)
+    private long amount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "due_amount", nullable = false, precision = 12, scale = 2)
+    private long dueAmount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "total_membership_fee", precision = 12, scale = 2)
+    private Long totalMembershipFee; // null on some legacy rows
 
     @Column(name = "membership_session") // NEW FIELD: To store "Jan 2025 - Apr 2025" etc.
     private String membershipSession;
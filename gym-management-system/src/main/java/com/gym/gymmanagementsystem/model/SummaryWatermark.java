@@ -0,0 +1,30 @@
+package com.gym.gymmanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "summary_watermarks")
+@Data
+@NoArgsConstructor
+public class SummaryWatermark {
+
+    @Id
+    @Column(name = "watermark_name")
+    private String watermarkName; // e.g. "attendance_summary"
+
+    @Column(name = "last_processed_at")
+    private LocalDateTime lastProcessedAt; // Highest attendance.check_out_time folded into the summaries
+
+    @Column(name = "change_count")
+    private Long changeCount = 0L; // Bumped by every attendance write that can affect the summaries
+
+    @Column(name = "processed_change_count")
+    private Long processedChangeCount = 0L; // Value of changeCount the last summary run started from
+
+    public SummaryWatermark(String watermarkName) {
+        this.watermarkName = watermarkName;
+    }
+}
@@ -2,13 +2,19 @@ package com.gym.gymmanagementsystem.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.Persistable;
 import java.time.LocalDate;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_membership_status", columnList = "membership_status"),
+    @Index(name = "idx_users_current_plan_end_date", columnList = "current_plan_end_date")
+})
 @Data
-public class User {
+public class User implements Persistable<Integer> {
 
     @Id
     @Column(name = "user_id")
@@ -43,4 +49,29 @@ public class User {
     // MODIFIED: 'mappedBy' refers to the 'user' field in the Attendance entity (which now maps to the 'attendance' table)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private java.util.List<Attendance> attendanceRecords;
+
+    // User IDs are assigned, so Spring Data would treat every save() as a merge (SELECT, then INSERT).
+    // UserService sets this on a new member so save() persists it directly.
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private boolean newEntity;
+
+    @Override
+    @JsonIgnore
+    public Integer getId() {
+        return userId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
\ No newline at end of file
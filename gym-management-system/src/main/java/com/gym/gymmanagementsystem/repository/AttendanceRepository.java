@@ -3,12 +3,20 @@ package com.gym.gymmanagementsystem.repository;
 import com.gym.gymmanagementsystem.model.Attendance;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,9 +32,67 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Integer>
     @EntityGraph(value = "Attendance.withUser")
     Optional<Attendance> findByUserUserIdAndAttendanceDate(Integer userId, LocalDate attendanceDate);
 
+    // Keyset listing, newest first: the first page, then every row strictly after the (checkInTime, attendanceId) cursor.
+    // The Pageable only carries the limit; no count query is issued for a List result.
+    @EntityGraph(value = "Attendance.withUser")
+    @Query("SELECT a FROM Attendance a ORDER BY a.checkInTime DESC, a.attendanceId DESC")
+    List<Attendance> findFirstKeysetPage(Pageable limit);
+
+    @EntityGraph(value = "Attendance.withUser")
+    @Query("SELECT a FROM Attendance a WHERE (a.checkInTime, a.attendanceId) < (:checkInTime, :attendanceId) " +
+           "ORDER BY a.checkInTime DESC, a.attendanceId DESC")
+    List<Attendance> findKeysetPageAfter(@Param("checkInTime") LocalDateTime checkInTime,
+                                         @Param("attendanceId") Integer attendanceId, Pageable limit);
+
     // NEW METHOD: Find all attendance records for a specific date where check_out_time is NULL
     List<Attendance> findByCheckOutTimeIsNullAndAttendanceDate(LocalDate attendanceDate);
 
     List<Attendance> findByAttendanceDateBetween(LocalDate startDate, LocalDate endDate);
 
+    // Forward-only scalar rows for the export; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = ExportFetch.FETCH_SIZE))
+    @Query("SELECT a.attendanceId AS attendanceId, u.userId AS userId, u.name AS userName, a.checkInTime AS checkInTime, " +
+           "a.checkOutTime AS checkOutTime, a.timeSpentMinutes AS timeSpentMinutes, a.attendanceDate AS attendanceDate " +
+           "FROM Attendance a JOIN a.user u ORDER BY a.attendanceId")
+    Stream<AttendanceExportRow> streamAllForExport();
+
+    interface AttendanceExportRow {
+        Integer getAttendanceId();
+        Integer getUserId();
+        String getUserName();
+        LocalDateTime getCheckInTime();
+        LocalDateTime getCheckOutTime();
+        Long getTimeSpentMinutes();
+        LocalDate getAttendanceDate();
+    }
+
+    // Open sessions for a date together with the member fields the bulk check-out rules need, in one query
+    @Query("SELECT a.attendanceId AS attendanceId, a.version AS version, a.checkInTime AS checkInTime, u.userId AS userId, u.name AS userName, " +
+           "u.membershipStatus AS membershipStatus, u.currentPlanEndDate AS currentPlanEndDate " +
+           "FROM Attendance a JOIN a.user u " +
+           "WHERE a.checkOutTime IS NULL AND a.attendanceDate = :attendanceDate")
+    List<OpenSessionView> findOpenSessionsOn(@Param("attendanceDate") LocalDate attendanceDate);
+
+    // Per-day check-in counts for a date range, grouped in the database (served by idx_attendance_attendance_date)
+    @Query("SELECT a.attendanceDate AS attendanceDate, COUNT(a) AS attendanceCount FROM Attendance a " +
+           "WHERE a.attendanceDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY a.attendanceDate ORDER BY a.attendanceDate")
+    List<DailyAttendanceCount> countByAttendanceDateBetween(@Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    interface OpenSessionView {
+        Integer getAttendanceId();
+        Long getVersion();
+        LocalDateTime getCheckInTime();
+        Integer getUserId();
+        String getUserName();
+        String getMembershipStatus();
+        LocalDate getCurrentPlanEndDate();
+    }
+
+    interface DailyAttendanceCount {
+        LocalDate getAttendanceDate();
+        Long getAttendanceCount();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.gym.gymmanagementsystem.repository;
+
+import com.gym.gymmanagementsystem.model.DailyRevenueSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueSummaryRepository extends JpaRepository<DailyRevenueSummary, Long> {
+
+    // Reads at most one row per (day, method, plan) in the range, independent of how many payments they cover
+    @Query("SELECT s.paymentMethod AS paymentMethod, s.membershipPlanId AS membershipPlanId, SUM(s.paymentCount) AS paymentCount, " +
+           "SUM(CAST(s.amountTotal AS BigDecimal)) AS amount, SUM(CAST(s.dueTotal AS BigDecimal)) AS dueAmount, " +
+           "SUM(CAST(s.feeTotal AS BigDecimal)) AS totalMembershipFee " +
+           "FROM DailyRevenueSummary s WHERE s.summaryDate BETWEEN :startDate AND :endDate AND s.paymentCount > 0 " +
+           "GROUP BY s.paymentMethod, s.membershipPlanId")
+    List<RevenueTotalsRow> sumByMethodAndPlan(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    interface RevenueTotalsRow {
+        String getPaymentMethod();
+        Integer getMembershipPlanId(); // DailyRevenueSummary.NO_PLAN for ad-hoc payments
+        Long getPaymentCount();
+        // Rupees straight from the NUMERIC columns: without the CAST, SUM takes the attribute's Long type and
+        // reads the rupee total as a whole number, bypassing MoneyConverter. Convert with Money.toPaise.
+        BigDecimal getAmount();
+        BigDecimal getDueAmount();
+        BigDecimal getTotalMembershipFee();
+    }
+}
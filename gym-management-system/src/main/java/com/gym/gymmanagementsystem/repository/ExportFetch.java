@@ -0,0 +1,14 @@
+package com.gym.gymmanagementsystem.repository;
+
+/**
+ * Shared JDBC fetch size for the streaming export queries.
+ * PostgreSQL only honours it inside a transaction (autocommit off); MySQL Connector/J needs
+ * useCursorFetch=true on the JDBC URL, otherwise it buffers the whole result.
+ */
+final class ExportFetch {
+
+    static final String FETCH_SIZE = "1000";
+
+    private ExportFetch() {
+    }
+}
@@ -1,19 +1,117 @@
 package com.gym.gymmanagementsystem.repository;
 
 import com.gym.gymmanagementsystem.model.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
+    // Listings fetch-join the user so convertToDto can read the user name without one SELECT per payment.
+    // Plan names come from MembershipPlanCache, so the page costs one query plus Spring Data's count query.
+    @Override
+    @EntityGraph(value = "Payment.withUser")
+    Page<Payment> findAll(Pageable pageable);
+
+    // Keyset listing by primary key, newest first; the Pageable only carries the limit
+    @EntityGraph(value = "Payment.withUser")
+    @Query("SELECT p FROM Payment p ORDER BY p.paymentId DESC")
+    List<Payment> findFirstKeysetPage(Pageable limit);
+
+    @EntityGraph(value = "Payment.withUser")
+    @Query("SELECT p FROM Payment p WHERE p.paymentId < :paymentId ORDER BY p.paymentId DESC")
+    List<Payment> findKeysetPageAfter(@Param("paymentId") Integer paymentId, Pageable limit);
+
+    // SELECT ... FOR UPDATE: concurrent settlements of the same due queue on the row instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.paymentId = :paymentId")
+    Optional<Payment> findByIdForUpdate(@Param("paymentId") Integer paymentId);
+
     // Custom query to find payments by user ID
+    @EntityGraph(value = "Payment.withUser")
     List<Payment> findByUserUserId(Integer userId);
-    // Custom query for analytics (e.g., sum of amounts within a date range)
-    List<Payment> findByPaymentDateBetween(LocalDate startDate, LocalDate endDate);
 
-    // NEW METHOD: Find all payments with dueAmount greater than 0
-    List<Payment> findByDueAmountGreaterThan(Double dueAmount);
+    // Outstanding dues. The predicate is the literal 'dueAmount > 0' rather than a bind parameter so PostgreSQL
+    // can prove it matches the partial index idx_payments_outstanding_due (see PostgresSchemaInitializer).
+    @EntityGraph(value = "Payment.withUser")
+    @Query("SELECT p FROM Payment p WHERE p.dueAmount > 0")
+    List<Payment> findAllOutstanding();
+
+    @Query(value = "SELECT p.paymentId AS paymentId, u.userId AS userId, u.name AS userName, p.amount AS amount, " +
+                   "p.dueAmount AS dueAmount, p.totalMembershipFee AS totalMembershipFee, p.membershipSession AS membershipSession, " +
+                   "p.paymentDate AS paymentDate, p.paymentMethod AS paymentMethod, p.membershipPlanId AS membershipPlanId " +
+                   "FROM Payment p JOIN p.user u WHERE p.dueAmount > 0",
+           countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.dueAmount > 0")
+    Page<OutstandingDueView> findOutstandingDues(Pageable pageable);
+
+    @Query(value = "SELECT u.userId AS userId, u.name AS userName, u.contactNumber AS contactNumber, " +
+                   "COUNT(p) AS outstandingPayments, SUM(CAST(p.dueAmount AS BigDecimal)) AS totalDueAmount, MIN(p.paymentDate) AS oldestDueDate " +
+                   "FROM Payment p JOIN p.user u WHERE p.dueAmount > 0 " +
+                   "GROUP BY u.userId, u.name, u.contactNumber",
+           countQuery = "SELECT COUNT(DISTINCT p.user.userId) FROM Payment p WHERE p.dueAmount > 0")
+    Page<MemberDueTotalsView> findOutstandingDueTotalsByMember(Pageable pageable);
+
+    // Forward-only scalar rows for the export; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = ExportFetch.FETCH_SIZE))
+    @Query("SELECT p.paymentId AS paymentId, u.userId AS userId, u.name AS userName, p.amount AS amount, " +
+           "p.dueAmount AS dueAmount, p.totalMembershipFee AS totalMembershipFee, p.membershipPlanId AS membershipPlanId, " +
+           "p.membershipSession AS membershipSession, p.paymentDate AS paymentDate, p.paymentMethod AS paymentMethod, " +
+           "p.paymentMethodDetail AS paymentMethodDetail, p.transactionId AS transactionId, p.notes AS notes " +
+           "FROM Payment p JOIN p.user u ORDER BY p.paymentId")
+    Stream<PaymentExportRow> streamAllForExport();
+
+    interface OutstandingDueView {
+        Integer getPaymentId();
+        Integer getUserId();
+        String getUserName();
+        Long getAmount(); // paise, like every money value below
+        Long getDueAmount();
+        Long getTotalMembershipFee();
+        String getMembershipSession();
+        LocalDate getPaymentDate();
+        String getPaymentMethod();
+        Integer getMembershipPlanId();
+    }
+
+    interface MemberDueTotalsView {
+        Integer getUserId();
+        String getUserName();
+        String getContactNumber();
+        Long getOutstandingPayments();
+        BigDecimal getTotalDueAmount(); // rupees, see DailyRevenueSummaryRepository.RevenueTotalsRow
+        LocalDate getOldestDueDate();
+    }
+
+    interface PaymentExportRow {
+        Integer getPaymentId();
+        Integer getUserId();
+        String getUserName();
+        Long getAmount(); // paise, like every money value below
+        Long getDueAmount();
+        Long getTotalMembershipFee();
+        Integer getMembershipPlanId();
+        String getMembershipSession();
+        LocalDate getPaymentDate();
+        String getPaymentMethod();
+        String getPaymentMethodDetail();
+        String getTransactionId();
+        String getNotes();
+    }
 }
\ No newline at end of file
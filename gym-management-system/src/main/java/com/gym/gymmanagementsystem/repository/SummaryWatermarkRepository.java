@@ -0,0 +1,26 @@
+package com.gym.gymmanagementsystem.repository;
+
+import com.gym.gymmanagementsystem.model.SummaryWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SummaryWatermarkRepository extends JpaRepository<SummaryWatermark, String> {
+
+    // Targeted updates so concurrent writers and the summary run never overwrite each other's columns
+    @Modifying
+    @Query("UPDATE SummaryWatermark w SET w.changeCount = COALESCE(w.changeCount, 0) + 1 WHERE w.watermarkName = :name")
+    int incrementChangeCount(@Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE SummaryWatermark w SET w.lastProcessedAt = :lastProcessedAt, w.processedChangeCount = :processedChangeCount " +
+           "WHERE w.watermarkName = :name")
+    int markProcessed(@Param("name") String name,
+                      @Param("lastProcessedAt") LocalDateTime lastProcessedAt,
+                      @Param("processedChangeCount") Long processedChangeCount);
+}
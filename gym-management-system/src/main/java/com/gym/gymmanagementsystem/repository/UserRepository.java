@@ -5,11 +5,20 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
@@ -22,6 +31,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     List<User> findByMembershipStatus(String status);
 
+    // Paged, narrow rows for the dashboard status filter (served by idx_users_membership_status)
+    Page<MemberSummaryView> findSummariesByMembershipStatus(String membershipStatus, Pageable pageable);
+
     // Existing methods (if you define these, make sure they return Page)
     Page<User> findByUserId(Integer userId, Pageable pageable);
     Page<User> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -30,11 +42,115 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     // This will search by name, user ID (as string), or contact number
     // IMPORTANT: This requires MySQL 8+ or PostgreSQL for CAST(u.userId AS string)
     // If you are using MySQL 5.7, use CONVERT(u.userId, CHAR) instead of CAST.
-@Query("SELECT u FROM User u WHERE " +
+    // On PostgreSQL each predicate is served by a pg_trgm GIN index (see PostgresSchemaInitializer).
+    // An exact user ID match is always ranked first; the Pageable's sort orders the remaining hits.
+@Query(value = "SELECT u FROM User u WHERE " +
            "LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            //"STR(u.userId) LIKE CONCAT('%', :query, '%') OR " + // <-- FIX APPLIED: Using STR()
            "CAST(u.userId AS text) LIKE CONCAT('%', :query, '%') OR " +
+           "LOWER(u.contactNumber) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "ORDER BY CASE WHEN CAST(u.userId AS text) = :query THEN 0 ELSE 1 END",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE " +
+           "LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "CAST(u.userId AS text) LIKE CONCAT('%', :query, '%') OR " +
            "LOWER(u.contactNumber) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<User> findBySearchQuery(@Param("query") String query, Pageable pageable);
     // You no longer need findAllByOrderByMembershipStatusAsc/Desc as findAll(Pageable) handles it.
+
+    // --- Dashboard aggregates: evaluated in the database so the dashboard never loads the users table ---
+
+    long countByMembershipStatus(String status);
+
+    @Query("SELECT u.userId AS userId, u.name AS userName, u.currentPlanId AS planId, " +
+           "p.planName AS planName, u.currentPlanEndDate AS endDate " +
+           "FROM User u LEFT JOIN MembershipPlan p ON p.planId = u.currentPlanId " +
+           "WHERE u.currentPlanId IS NOT NULL AND u.currentPlanEndDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY u.currentPlanEndDate ASC")
+    List<ExpiringMembershipView> findMembershipsEndingBetween(@Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT u.currentPlanId AS planId, p.planName AS planName, COUNT(u) AS memberCount " +
+           "FROM User u LEFT JOIN MembershipPlan p ON p.planId = u.currentPlanId " +
+           "WHERE u.membershipStatus = :status " +
+           "GROUP BY u.currentPlanId, p.planName")
+    List<PlanMemberCount> countMembersByPlan(@Param("status") String status);
+
+    // Forward-only scalar rows for the export; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = ExportFetch.FETCH_SIZE))
+    @Query("SELECT u.userId AS userId, u.name AS name, u.age AS age, u.gender AS gender, u.contactNumber AS contactNumber, " +
+           "u.membershipStatus AS membershipStatus, u.joiningDate AS joiningDate, u.currentPlanId AS currentPlanId, " +
+           "u.currentPlanStartDate AS currentPlanStartDate, u.currentPlanEndDate AS currentPlanEndDate " +
+           "FROM User u ORDER BY u.userId")
+    Stream<UserExportRow> streamAllForExport();
+
+    interface UserExportRow {
+        Integer getUserId();
+        String getName();
+        Integer getAge();
+        String getGender();
+        String getContactNumber();
+        String getMembershipStatus();
+        LocalDate getJoiningDate();
+        Integer getCurrentPlanId();
+        LocalDate getCurrentPlanStartDate();
+        LocalDate getCurrentPlanEndDate();
+    }
+
+    // Membership expiry sweep: an Active membership whose end date is today or earlier becomes Expired,
+    // matching UserService.deriveAndSetUserStatus. Both statements use idx_users_current_plan_end_date.
+    @Query("SELECT u.userId FROM User u WHERE u.membershipStatus = 'Active' AND u.currentPlanEndDate <= :today")
+    List<Integer> findActiveUserIdsEndedBy(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE User u SET u.membershipStatus = 'Expired' " +
+           "WHERE u.membershipStatus = 'Active' AND u.currentPlanEndDate <= :today")
+    int expireMembershipsEndedBy(@Param("today") LocalDate today);
+
+    // Backfills rows written before the status column was maintained, using the same rule
+    @Modifying
+    @Query("UPDATE User u SET u.membershipStatus = CASE " +
+           "WHEN u.currentPlanId IS NULL OR u.currentPlanEndDate IS NULL THEN 'Inactive' " +
+           "WHEN u.currentPlanEndDate > :today THEN 'Active' ELSE 'Expired' END " +
+           "WHERE u.membershipStatus IS NULL")
+    int deriveMissingMembershipStatuses(@Param("today") LocalDate today);
+
+    // Current summary fields of the members touched by a write, for MemberSearchIndex
+    @Query("SELECT u.userId AS userId, u.name AS name, u.contactNumber AS contactNumber, " +
+           "u.membershipStatus AS membershipStatus FROM User u WHERE u.userId IN :userIds")
+    List<MemberSummaryView> findSearchViewsByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    interface MemberSummaryView {
+        Integer getUserId();
+        String getName();
+        String getContactNumber();
+        String getMembershipStatus();
+    }
+
+    // Just the fields the attendance desk checks before a swipe
+    @Query("SELECT u.userId AS userId, u.name AS name, u.membershipStatus AS membershipStatus, " +
+           "u.currentPlanEndDate AS currentPlanEndDate FROM User u WHERE u.userId = :userId")
+    Optional<MemberEligibilityView> findEligibilityByUserId(@Param("userId") Integer userId);
+
+    interface MemberEligibilityView {
+        Integer getUserId();
+        String getName();
+        String getMembershipStatus();
+        LocalDate getCurrentPlanEndDate();
+    }
+
+    // Projection for a membership ending within a date window (plan name resolved by the join)
+    interface ExpiringMembershipView {
+        Integer getUserId();
+        String getUserName();
+        Integer getPlanId();
+        String getPlanName();
+        LocalDate getEndDate();
+    }
+
+    // Projection for one row of the plan distribution GROUP BY
+    interface PlanMemberCount {
+        Integer getPlanId();
+        String getPlanName();
+        Long getMemberCount();
+    }
 }
\ No newline at end of file
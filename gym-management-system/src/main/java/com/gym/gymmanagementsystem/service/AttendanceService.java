@@ -8,19 +8,28 @@ import com.gym.gymmanagementsystem.repository.AttendanceRepository;
 import com.gym.gymmanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value; // NEW IMPORT
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.gym.gymmanagementsystem.dto.AttendanceResponseDTO;
+import com.gym.gymmanagementsystem.dto.CheckOutAllResultDTO;
+import com.gym.gymmanagementsystem.dto.CursorPageDTO;
+import com.gym.gymmanagementsystem.dto.SkippedCheckOutDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import org.slf4j.Logger;
@@ -30,11 +39,20 @@ import org.slf4j.LoggerFactory;
 public class AttendanceService {
 
     private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
+    private static final int BULK_CHECK_OUT_BATCH_SIZE = 500;
 
     @Autowired
     private AttendanceRepository attendanceRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MemberEligibilityCache memberEligibilityCache;
+    @Autowired
+    private CheckInToggleEngine checkInToggleEngine;
 
     // NEW: Inject configurable minimum stay time
     @Value("${attendance.min-stay-minutes:10}") // Default to 10 if property is missing
@@ -64,59 +82,58 @@ public class AttendanceService {
 
     @Transactional
     public AttendanceResponseDTO recordOrUpdateAttendance(Integer userId) {
-        User user = userRepository.findById(userId)
+        // Fast path: a cached eligibility record instead of a full User load, then one upsert statement for the toggle
+        MemberEligibilityCache.Eligibility member = memberEligibilityCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
 
         // NEW VALIDATION: Check user's membership status before allowing attendance
-        if (!"Active".equalsIgnoreCase(user.getMembershipStatus()) && 
-            (user.getCurrentPlanEndDate() == null || user.getCurrentPlanEndDate().isBefore(LocalDate.now()))) {
-            throw new RuntimeException("User's membership is not active. Status: " + user.getMembershipStatus() + ".");
+        if (!"Active".equalsIgnoreCase(member.membershipStatus()) && 
+            (member.currentPlanEndDate() == null || member.currentPlanEndDate().isBefore(LocalDate.now()))) {
+            throw new RuntimeException("User's membership is not active. Status: " + member.membershipStatus() + ".");
         }
-        if ("Expired".equalsIgnoreCase(user.getMembershipStatus())) {
+        if ("Expired".equalsIgnoreCase(member.membershipStatus())) {
             throw new RuntimeException("User's membership has expired. Please renew the plan.");
         }
-        if ("Inactive".equalsIgnoreCase(user.getMembershipStatus())) {
+        if ("Inactive".equalsIgnoreCase(member.membershipStatus())) {
             throw new RuntimeException("User's membership is inactive. Please assign a plan.");
         }
 
 
-        LocalDateTime now = LocalDateTime.now();
+        // Truncated to what the timestamp columns store, so the value read back compares equal
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         LocalDate today = now.toLocalDate();
 
-        Optional<Attendance> existingAttendance = attendanceRepository.findByUserUserIdAndAttendanceDate(userId, today);
-        if (existingAttendance.isPresent()) {
-            Attendance attendance = existingAttendance.get();
-            if (attendance.getCheckOutTime() == null) {
-                // User has checked in but not checked out, so this is a CHECK-OUT action
-                if (now.isBefore(attendance.getCheckInTime())) {
-                    throw new RuntimeException("Check-out time cannot be before check-in time.");
+        CheckInToggleEngine.ToggleResult result = checkInToggleEngine.toggle(userId, today, now, minStayMinutes);
+        switch (result.outcome()) {
+            case CHECKED_IN:
+                return toDto(result, member);
+            case CHECKED_OUT:
+                attendanceSummaryService.markAttendanceChanged(); // A completed session is now waiting to be summarized
+                return toDto(result, member);
+            default:
+                if (result.checkOutTime() != null) {
+                    // MODIFIED ERROR MESSAGE: User has already checked in AND checked out today
+                    throw new RuntimeException("User has already checked in and checked out today at " + result.checkOutTime().toLocalTime() + ".");
                 }
-
-                Duration durationSinceCheckIn = Duration.between(attendance.getCheckInTime(), now);
-                // USE INJECTED VALUE
-                if (durationSinceCheckIn.toMinutes() < minStayMinutes) { 
-                    throw new RuntimeException("Check-out not allowed. User must stay at least " + minStayMinutes + " minutes (current duration: " + durationSinceCheckIn.toMinutes() + " minutes)."); 
+                if (now.isBefore(result.checkInTime())) {
+                    throw new RuntimeException("Check-out time cannot be before check-in time.");
                 }
-
-                attendance.setCheckOutTime(now); 
-                Duration totalDuration = Duration.between(attendance.getCheckInTime(), now);
-                attendance.setTimeSpentMinutes(totalDuration.toMinutes());
-
-                return convertToDto(attendanceRepository.save(attendance));
-            } else {
-                // MODIFIED ERROR MESSAGE: User has already checked in AND checked out today
-                throw new RuntimeException("User has already checked in and checked out today at " + attendance.getCheckOutTime().toLocalTime() + ".");
-            }
-        } else {
-            // No attendance record for today, so this is a CHECK-IN action
-            Attendance newAttendance = new Attendance();
-            newAttendance.setUser(user);
-            newAttendance.setCheckInTime(now);
-            newAttendance.setAttendanceDate(today);
-            return convertToDto(attendanceRepository.save(newAttendance));
+                long minutesSinceCheckIn = Duration.between(result.checkInTime(), now).toMinutes();
+                throw new RuntimeException("Check-out not allowed. User must stay at least " + minStayMinutes + " minutes (current duration: " + minutesSinceCheckIn + " minutes).");
         }
     }
 
+    private AttendanceResponseDTO toDto(CheckInToggleEngine.ToggleResult result, MemberEligibilityCache.Eligibility member) {
+        AttendanceResponseDTO dto = new AttendanceResponseDTO();
+        dto.setAttendanceId(result.attendanceId());
+        dto.setUserId(member.userId());
+        dto.setUserName(member.name());
+        dto.setCheckInTime(result.checkInTime());
+        dto.setCheckOutTime(result.checkOutTime());
+        dto.setTimeSpentMinutes(result.timeSpentMinutes());
+        return dto;
+    }
+
     public List<Attendance> getAttendanceByUserId(String userId) {
          try {
             Integer intUserId = Integer.parseInt(userId);
@@ -129,14 +146,12 @@ public class AttendanceService {
     }
 
     public Map<LocalDate, Long> getDailyAttendanceCount(LocalDate startDate, LocalDate endDate) {
-        List<Attendance> attendanceList = attendanceRepository.findAll(); 
-        return attendanceList.stream()
-                .filter(a -> !a.getCheckInTime().toLocalDate().isBefore(startDate) && 
-                           !a.getCheckInTime().toLocalDate().isAfter(endDate))
-                .collect(Collectors.groupingBy(
-                        a -> a.getCheckInTime().toLocalDate(),
-                        Collectors.counting()
-                ));
+        // attendanceDate is always the check-in date, so grouping on it matches the old checkInTime-based grouping
+        Map<LocalDate, Long> dailyCounts = new LinkedHashMap<>();
+        for (AttendanceRepository.DailyAttendanceCount row : attendanceRepository.countByAttendanceDateBetween(startDate, endDate)) {
+            dailyCounts.put(row.getAttendanceDate(), row.getAttendanceCount());
+        }
+        return dailyCounts;
     }
 
     public Page<AttendanceResponseDTO> getAllAttendanceRecords(Pageable pageable) {
@@ -144,50 +159,120 @@ public class AttendanceService {
         return attendancePage.map(this::convertToDto);
     }
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+
+    // Total for cursor listings, recomputed at most once a minute instead of a count(*) per page
+    private final CachedCount attendanceCount = new CachedCount(() -> attendanceRepository.count(), 60_000L);
+
+    public CursorPageDTO<AttendanceResponseDTO> getAttendanceRecordsAfter(String after, int size, boolean includeTotal) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<Attendance> rows;
+        if (after == null || after.isBlank()) {
+            rows = attendanceRepository.findFirstKeysetPage(fetch);
+        } else {
+            String[] key = PageCursor.decode(after, 2);
+            LocalDateTime afterCheckInTime;
+            Integer afterAttendanceId;
+            try {
+                afterCheckInTime = LocalDateTime.parse(key[0]);
+                afterAttendanceId = Integer.valueOf(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + after, e);
+            }
+            rows = attendanceRepository.findKeysetPageAfter(afterCheckInTime, afterAttendanceId, fetch);
+        }
+        boolean hasNext = rows.size() > limit;
+        List<Attendance> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Attendance last = page.get(page.size() - 1);
+            nextCursor = PageCursor.encode(last.getCheckInTime(), last.getAttendanceId());
+        }
+        List<AttendanceResponseDTO> content = page.stream().map(this::convertToDto).collect(Collectors.toList());
+        return new CursorPageDTO<>(content, nextCursor, hasNext, includeTotal ? attendanceCount.get() : null);
+    }
+
+    @Transactional
     public void deleteAttendanceRecord(Integer attendanceId) {
         if (!attendanceRepository.existsById(attendanceId)) { 
             throw new RuntimeException("Attendance record not found with ID: " + attendanceId);
         }
         attendanceRepository.deleteById(attendanceId); 
+        attendanceSummaryService.markAttendanceChanged();
     }
 
+    private static final String BULK_CHECK_OUT_SQL =
+            "UPDATE attendance SET check_out_time = ?, time_spent_minutes = ?, version = version + 1 " +
+            "WHERE attendance_id = ? AND version = ? AND check_out_time IS NULL"; // Guard: a desk swipe may have changed it meanwhile
+
     @Transactional
-    public int checkOutAllUsers() {
+    public CheckOutAllResultDTO checkOutAllUsers() {
         LocalDate today = LocalDate.now();
-        List<Attendance> activeAttendances = attendanceRepository.findByCheckOutTimeIsNullAndAttendanceDate(today);
+        // One query for all open sessions and their members' status, instead of touching attendance.getUser() per row
+        List<AttendanceRepository.OpenSessionView> openSessions = attendanceRepository.findOpenSessionsOn(today);
 
-        int checkedOutCount = 0;
         LocalDateTime now = LocalDateTime.now();
-        for (Attendance attendance : activeAttendances) {
+        List<AttendanceRepository.OpenSessionView> toCheckOut = new ArrayList<>();
+        List<SkippedCheckOutDTO> skipped = new ArrayList<>();
+        for (AttendanceRepository.OpenSessionView session : openSessions) {
             // NEW VALIDATION: Ensure user is still "Active" before checking them out
-            if (!"Active".equalsIgnoreCase(attendance.getUser().getMembershipStatus()) &&
-                (attendance.getUser().getCurrentPlanEndDate() == null || attendance.getUser().getCurrentPlanEndDate().isBefore(LocalDate.now()))) {
-                logger.info("Skipping check-out for non-active user: " + attendance.getUser().getName() + " (ID: " + attendance.getUser().getUserId() + "). Status: " + attendance.getUser().getMembershipStatus() + ".");
+            if (!"Active".equalsIgnoreCase(session.getMembershipStatus()) &&
+                (session.getCurrentPlanEndDate() == null || session.getCurrentPlanEndDate().isBefore(today))) {
+                logger.info("Skipping check-out for non-active user: " + session.getUserName() + " (ID: " + session.getUserId() + "). Status: " + session.getMembershipStatus() + ".");
+                skipped.add(skip(session, "Membership not active (status: " + session.getMembershipStatus() + ")"));
                 continue; // Skip inactive/expired users
             }
 
-
-            if (attendance.getCheckInTime() != null) { 
-                Duration durationSinceCheckIn = Duration.between(attendance.getCheckInTime(), now);
-                // USE INJECTED VALUE
-                if (durationSinceCheckIn.toMinutes() < minStayMinutes) { 
-                    logger.info("Skipping check-out for user " + attendance.getUser().getUserId() +
-                                                  " (less than " + minStayMinutes + " minutes stay: " + durationSinceCheckIn.toMinutes() + " min).");
-                    continue; 
-                }
-            } else {
-                logger.info("Skipping check-out for user " + attendance.getUser().getUserId() + " (missing check-in time).");
+            if (session.getCheckInTime() == null) {
+                logger.info("Skipping check-out for user " + session.getUserId() + " (missing check-in time).");
+                skipped.add(skip(session, "Missing check-in time"));
+                continue;
+            }
+            long minutesSinceCheckIn = Duration.between(session.getCheckInTime(), now).toMinutes();
+            // USE INJECTED VALUE
+            if (minutesSinceCheckIn < minStayMinutes) {
+                logger.info("Skipping check-out for user " + session.getUserId() +
+                                              " (less than " + minStayMinutes + " minutes stay: " + minutesSinceCheckIn + " min).");
+                skipped.add(skip(session, "Stayed less than " + minStayMinutes + " minutes (" + minutesSinceCheckIn + " min)"));
+                continue;
+            }
+            if (!now.isAfter(session.getCheckInTime())) {
+                skipped.add(skip(session, "Check-in time is not before the check-out time"));
                 continue;
             }
+            toCheckOut.add(session);
+        }
+
+        // All eligible sessions are closed in JDBC batches rather than one save() per row
+        int[][] updateCounts = jdbcTemplate.batchUpdate(BULK_CHECK_OUT_SQL, toCheckOut, BULK_CHECK_OUT_BATCH_SIZE,
+                (ps, session) -> {
+                    ps.setObject(1, now);
+                    ps.setLong(2, Duration.between(session.getCheckInTime(), now).toMinutes());
+                    ps.setInt(3, session.getAttendanceId());
+                    ps.setLong(4, session.getVersion());
+                });
 
-            if (now.isAfter(attendance.getCheckInTime())) {
-                attendance.setCheckOutTime(now);
-                Duration duration = Duration.between(attendance.getCheckInTime(), now);
-                attendance.setTimeSpentMinutes(duration.toMinutes());
-                attendanceRepository.save(attendance);
-                checkedOutCount++;
+        int checkedOutCount = 0;
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                AttendanceRepository.OpenSessionView session = toCheckOut.get(index++);
+                if (count == 0) {
+                    skipped.add(skip(session, "Changed by a concurrent check-out"));
+                } else {
+                    checkedOutCount++; // count > 0, or SUCCESS_NO_INFO from drivers that rewrite batches
+                }
             }
         }
-        return checkedOutCount;
+        if (checkedOutCount > 0) {
+            attendanceSummaryService.markAttendanceChanged();
+        }
+        return new CheckOutAllResultDTO(checkedOutCount, skipped);
+    }
+
+    private SkippedCheckOutDTO skip(AttendanceRepository.OpenSessionView session, String reason) {
+        return new SkippedCheckOutDTO(session.getAttendanceId(), session.getUserId(), session.getUserName(), reason);
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database-specific SQL behind AttendanceSummaryService.
+ * Every step is an upsert restricted to sessions checked out within [from, upTo], so re-running a window is safe.
+ */
+public interface AttendanceSummaryEngine {
+
+    /** Copies completed sessions from 'attendance' into 'daily_attendance'. */
+    int copyCompletedSessions(LocalDateTime from, LocalDateTime upTo);
+
+    /** Recomputes 'monthly_attendance_summary' for the (user, month) buckets touched in the window. */
+    int refreshMonthlySummaries(LocalDateTime from, LocalDateTime upTo);
+
+    /** Recomputes 'yearly_attendance_summary' for the (user, year) buckets touched in the window. */
+    int refreshYearlySummaries(LocalDateTime from, LocalDateTime upTo);
+}
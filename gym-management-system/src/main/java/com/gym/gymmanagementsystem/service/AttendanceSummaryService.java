@@ -1,54 +1,104 @@
 package com.gym.gymmanagementsystem.service;
 
+import com.gym.gymmanagementsystem.model.SummaryWatermark;
+import com.gym.gymmanagementsystem.repository.SummaryWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.util.List; // Import List
-import java.util.Map;  // Import Map
+import java.time.LocalDateTime;
 
 @Service
 public class AttendanceSummaryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceSummaryService.class);
+
+    private static final String ATTENDANCE_SUMMARY_WATERMARK = "attendance_summary";
+    // Lower bound used when no watermark exists yet, i.e. a full rebuild
+    private static final LocalDateTime FULL_REBUILD_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final JdbcTemplate jdbcTemplate;
+    private final SummaryWatermarkRepository summaryWatermarkRepository;
+    private final AttendanceSummaryEngine attendanceSummaryEngine;
+    // The counter bump commits on its own, so the shared watermark row is locked only for that one statement
+    private final TransactionTemplate changeCountTransaction;
+
+    @Value("${attendance.summary.watermark-overlap-minutes:5}")
+    private int watermarkOverlapMinutes;
 
     @Autowired
-    public AttendanceSummaryService(JdbcTemplate jdbcTemplate) {
+    public AttendanceSummaryService(JdbcTemplate jdbcTemplate, SummaryWatermarkRepository summaryWatermarkRepository,
+                                    AttendanceSummaryEngine attendanceSummaryEngine,
+                                    PlatformTransactionManager transactionManager) {
         this.jdbcTemplate = jdbcTemplate;
+        this.summaryWatermarkRepository = summaryWatermarkRepository;
+        this.attendanceSummaryEngine = attendanceSummaryEngine;
+        this.changeCountTransaction = new TransactionTemplate(transactionManager);
+        this.changeCountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Makes sure the watermark row exists before any attendance write tries to bump its counter.
+     * A freshly created row starts dirty so the first run picks up whatever is already in 'attendance'.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeWatermark() {
+        if (!summaryWatermarkRepository.existsById(ATTENDANCE_SUMMARY_WATERMARK)) {
+            SummaryWatermark watermark = new SummaryWatermark(ATTENDANCE_SUMMARY_WATERMARK);
+            watermark.setChangeCount(1L);
+            summaryWatermarkRepository.save(watermark);
+        }
+    }
+
+    /**
+     * Records that completed attendance changed. Called by AttendanceService inside its own transaction; the counter
+     * is bumped only once that transaction commits, so a rolled-back check-out does not leave the summaries marked
+     * dirty, and concurrent check-outs do not queue on the single watermark row until each other's commit.
+     * If the application stops between the two commits, the change is picked up with the next one: the summary run
+     * selects sessions by check-out time, not by counter.
+     */
+    public void markAttendanceChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementChangeCount();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                incrementChangeCount();
+            }
+        });
+    }
+
+    private void incrementChangeCount() {
+        changeCountTransaction.executeWithoutResult(status ->
+                summaryWatermarkRepository.incrementChangeCount(ATTENDANCE_SUMMARY_WATERMARK));
     }
 
     /**
-     * Checks if there are any new or updated completed attendance records in the
-     * temporary 'attendance' table that would result in changes to 'daily_attendance'.
-     * This considers records that are either not yet in 'daily_attendance' or
-     * records where 'check_out_time' or 'time_spent_minutes' have changed in 'attendance'.
+     * Checks whether any attendance write happened since the last summary run.
+     * This is a primary-key read of the watermark row; the attendance tables are not touched.
      *
      * @return true if there are records to process, false otherwise.
      */
     public boolean hasPendingAttendanceRecordsForSummary() {
-        // This query identifies records in 'attendance' that are completed
-        // AND either not in 'daily_attendance' yet (based on user_id, attendance_date)
-        // OR have different check_out/time_spent_minutes values compared to what's in daily_attendance.
-        String checkPendingSql = """
-            SELECT EXISTS (
-                SELECT 1
-                FROM attendance att
-                WHERE att.check_out_time IS NOT NULL AND att.time_spent_minutes IS NOT NULL
-                AND NOT EXISTS (
-                    SELECT 1
-                    FROM daily_attendance da
-                    WHERE da.user_id = att.user_id
-                      AND da.attendance_date = att.attendance_date
-                      AND da.check_in = att.check_in_time -- Assuming check_in is stable for matching
-                      AND da.check_out = att.check_out_time
-                      AND da.time_spent_minutes = att.time_spent_minutes
-                )
-            )
-            """;
-        // Execute the query and return true if any pending records exist.
-        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(checkPendingSql, Boolean.class));
+        return summaryWatermarkRepository.findById(ATTENDANCE_SUMMARY_WATERMARK)
+                .map(watermark -> watermark.getChangeCount() == null
+                        || watermark.getProcessedChangeCount() == null
+                        || watermark.getChangeCount() > watermark.getProcessedChangeCount())
+                .orElse(true);
     }
 
 
@@ -56,82 +106,46 @@ public class AttendanceSummaryService {
      * Aggregates attendance data from the temporary 'attendance' table
      * into the persistent 'daily_attendance', 'monthly_attendance_summary', and 'yearly_attendance_summary' tables.
      * This method is designed to be idempotent (can be run multiple times safely).
-     * It relies on ON DUPLICATE KEY UPDATE for MySQL to either insert new summaries
-     * or update existing ones.
+     * The upserts themselves are dialect specific and live in the AttendanceSummaryEngine
+     * selected for the configured datasource (PostgreSQL or MySQL).
+     *
+     * The run is incremental: only sessions checked out since the stored high-water mark are copied,
+     * and only the (user, month) and (user, year) buckets those sessions fall into are recomputed.
+     * The first run (no watermark yet) processes the whole table.
      */
     @Transactional
     public void generateAttendanceSummaries() {
+        SummaryWatermark watermark = summaryWatermarkRepository.findById(ATTENDANCE_SUMMARY_WATERMARK)
+                .orElseGet(() -> summaryWatermarkRepository.save(new SummaryWatermark(ATTENDANCE_SUMMARY_WATERMARK)));
+        // Changes counted after this point stay pending for the next run
+        Long startedFromChangeCount = watermark.getChangeCount() != null ? watermark.getChangeCount() : 0L;
+
+        // Upper bound of this run; sessions checked out after it are left for the next run.
+        LocalDateTime upTo = jdbcTemplate.queryForObject(
+                "SELECT MAX(check_out_time) FROM attendance WHERE check_out_time IS NOT NULL", LocalDateTime.class);
+        if (upTo == null) {
+            logger.info("No completed attendance records to summarize.");
+            summaryWatermarkRepository.markProcessed(ATTENDANCE_SUMMARY_WATERMARK, watermark.getLastProcessedAt(), startedFromChangeCount);
+            return;
+        }
+        // Re-read a small window below the watermark so sessions that committed late are not skipped;
+        // re-processing them is harmless because every step below is an upsert.
+        LocalDateTime from = watermark.getLastProcessedAt() != null
+                ? watermark.getLastProcessedAt().minusMinutes(watermarkOverlapMinutes)
+                : FULL_REBUILD_FROM;
+
         // --- 0. Copy completed daily attendance from TEMPORARY 'attendance' to PERSISTENT 'daily_attendance' ---
-        // This query inserts completed records from the temporary 'attendance' table
-        // into the persistent 'daily_attendance' table.
-        // It relies on the UNIQUE constraint on (user_id, attendance_date) in daily_attendance.
-        String copyToPersistentDailySql = """
-            INSERT INTO daily_attendance (user_id, check_in, check_out, time_spent_minutes, attendance_date)
-            SELECT
-                att.user_id,
-                att.check_in_time,      -- Map from 'check_in_time' in temporary 'attendance' table
-                att.check_out_time,     -- Map from 'check_out_time' in temporary 'attendance' table
-                att.time_spent_minutes,
-                att.attendance_date
-            FROM
-                attendance att           -- Source is the TEMPORARY 'attendance' table
-            WHERE
-                att.check_out_time IS NOT NULL     -- Only include completed sessions
-                AND att.time_spent_minutes IS NOT NULL
-            ON DUPLICATE KEY UPDATE
-                -- Update existing records if the same user/date combination already exists
-                -- This ensures idempotency for daily_attendance itself
-                check_in = VALUES(check_in),
-                check_out = VALUES(check_out),
-                time_spent_minutes = VALUES(time_spent_minutes);
-            """;
-        jdbcTemplate.update(copyToPersistentDailySql);
-        System.out.println("Completed attendance records copied to persistent daily_attendance successfully.");
-
-        // --- 1. Aggregate Persistent Daily Attendance into Monthly Summary ---
-        // Now, source for monthly summary is the PERSISTENT 'daily_attendance' table
-        String monthlyAggregationSql = """
-            INSERT INTO monthly_attendance_summary (user_id, year, month, total_present_days, total_minutes_spent)
-            SELECT
-                da.user_id,
-                YEAR(da.attendance_date),
-                MONTH(da.attendance_date),
-                COUNT(DISTINCT da.attendance_date),
-                SUM(da.time_spent_minutes)
-            FROM
-                daily_attendance da -- Source is PERSISTENT 'daily_attendance' table
-            WHERE
-                da.check_out IS NOT NULL -- Always ensure completed sessions are summarized
-                AND da.time_spent_minutes IS NOT NULL
-            GROUP BY
-                da.user_id,
-                YEAR(da.attendance_date),
-                MONTH(da.attendance_date)
-            ON DUPLICATE KEY UPDATE
-                total_present_days = VALUES(total_present_days),
-                total_minutes_spent = VALUES(total_minutes_spent);
-            """;
-        jdbcTemplate.update(monthlyAggregationSql);
-        System.out.println("Monthly attendance summaries generated/updated successfully.");
-
-        // --- 2. Aggregate Monthly Summary into Yearly Summary ---
-        String yearlyAggregationSql = """
-            INSERT INTO yearly_attendance_summary (user_id, year, total_present_days, total_minutes_spent)
-            SELECT
-                mas.user_id,
-                mas.year,
-                SUM(mas.total_present_days),
-                SUM(mas.total_minutes_spent)
-            FROM
-                monthly_attendance_summary mas
-            GROUP BY
-                mas.user_id,
-                mas.year
-            ON DUPLICATE KEY UPDATE
-                total_present_days = VALUES(total_present_days),
-                total_minutes_spent = VALUES(total_minutes_spent);
-            """;
-        jdbcTemplate.update(yearlyAggregationSql);
-        System.out.println("Yearly attendance summaries generated/updated successfully.");
+        int copied = attendanceSummaryEngine.copyCompletedSessions(from, upTo);
+        logger.info("Completed attendance records copied to daily_attendance ({} rows affected).", copied);
+
+        // --- 1. Recompute the Monthly Summary for the (user, month) buckets touched since the last run ---
+        int monthly = attendanceSummaryEngine.refreshMonthlySummaries(from, upTo);
+        logger.info("Monthly attendance summaries generated/updated ({} rows affected).", monthly);
+
+        // --- 2. Recompute the Yearly Summary for the (user, year) buckets touched since the last run ---
+        int yearly = attendanceSummaryEngine.refreshYearlySummaries(from, upTo);
+        logger.info("Yearly attendance summaries generated/updated ({} rows affected).", yearly);
+
+        summaryWatermarkRepository.markProcessed(ATTENDANCE_SUMMARY_WATERMARK, upTo, startedFromChangeCount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * A row count that is recomputed at most once per time-to-live, for listings whose clients only want an approximate total.
+ */
+public class CachedCount {
+
+    private record Entry(long count, long computedAtMillis) {
+    }
+
+    private final LongSupplier counter;
+    private final long ttlMillis;
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+
+    public CachedCount(LongSupplier counter, long ttlMillis) {
+        this.counter = counter;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long get() {
+        Entry current = entry.get();
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.computedAtMillis() >= ttlMillis) {
+            current = new Entry(counter.getAsLong(), now);
+            entry.set(current);
+        }
+        return current.count();
+    }
+}
@@ -0,0 +1,20 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Database-specific single-statement check-in/check-out toggle on attendance(user_id, attendance_date).
+ * The first swipe of the day inserts the session; a later swipe closes it if the member stayed long enough.
+ * Any other swipe leaves the row untouched and is reported back as {@link Outcome#REJECTED} with the row as stored.
+ */
+public interface CheckInToggleEngine {
+
+    enum Outcome { CHECKED_IN, CHECKED_OUT, REJECTED }
+
+    record ToggleResult(Outcome outcome, Integer attendanceId, LocalDateTime checkInTime,
+                        LocalDateTime checkOutTime, Long timeSpentMinutes) {
+    }
+
+    ToggleResult toggle(Integer userId, LocalDate attendanceDate, LocalDateTime now, int minStayMinutes);
+}
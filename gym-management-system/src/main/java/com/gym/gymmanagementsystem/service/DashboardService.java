@@ -2,22 +2,21 @@
 
 package com.gym.gymmanagementsystem.service;
 
-import com.gym.gymmanagementsystem.model.MembershipPlan;
-import com.gym.gymmanagementsystem.model.User;
-import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
 import com.gym.gymmanagementsystem.repository.TrainerRepository;
 import com.gym.gymmanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest; 
-import org.springframework.data.domain.Pageable;   
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.gym.gymmanagementsystem.dto.ExpiringMembershipDTO;
+import com.gym.gymmanagementsystem.dto.MemberSummaryDTO;
 
 // NEW IMPORTS FOR LOGGING
 import org.slf4j.Logger;
@@ -33,44 +32,33 @@ public class DashboardService {
     private UserRepository userRepository;
     @Autowired
     private TrainerRepository trainerRepository;
-
-    @Autowired
-    private MembershipPlanRepository membershipPlanRepository;
     @Autowired
     private AttendanceService attendanceService;
+    @Autowired
+    private MemberSearchIndex memberSearchIndex;
 
     public long getTotalActiveMembers() {
         // Rely on the membershipStatus field being updated correctly by UserService
-        return userRepository.findAll().stream()
-                .filter(user -> "Active".equalsIgnoreCase(user.getMembershipStatus()))
-                .count();
+        return userRepository.countByMembershipStatus("Active");
     }
 
     public List<ExpiringMembershipDTO> getMembershipsExpiringSoon(int days) {
         LocalDate today = LocalDate.now();
         LocalDate cutoffDate = today.plusDays(days);
 
-        return userRepository.findAll().stream()
-                .filter(user -> user.getCurrentPlanId() != null && // Must have a plan
-                                user.getCurrentPlanEndDate() != null &&
-                                !user.getCurrentPlanEndDate().isBefore(today) && // End date is today or in future
-                                !user.getCurrentPlanEndDate().isAfter(cutoffDate)) // End date is within the cutoff period
-                .map(user -> {
+        // Range query on current_plan_end_date; the plan name comes back from the same join
+        return userRepository.findMembershipsEndingBetween(today, cutoffDate).stream()
+                .map(row -> {
                     ExpiringMembershipDTO dto = new ExpiringMembershipDTO();
-                    dto.setUserId(String.valueOf(user.getUserId()));
-                    dto.setUserName(user.getName());
-                    dto.setPlanId(user.getCurrentPlanId());
-                    dto.setEndDate(user.getCurrentPlanEndDate());
-
-                    if (user.getCurrentPlanId() != null) {
-                        membershipPlanRepository.findById(user.getCurrentPlanId()).ifPresentOrElse(plan -> {
-                            dto.setPlanName(plan.getPlanName());
-                        }, () -> {
-                            logger.warn("Plan ID {} found on user {} but MembershipPlan entity is missing.", user.getCurrentPlanId(), user.getUserId());
-                            dto.setPlanName("Unknown/Deleted Plan"); // Better descriptive fallback
-                        });
+                    dto.setUserId(String.valueOf(row.getUserId()));
+                    dto.setUserName(row.getUserName());
+                    dto.setPlanId(row.getPlanId());
+                    dto.setEndDate(row.getEndDate());
+                    if (row.getPlanName() != null) {
+                        dto.setPlanName(row.getPlanName());
                     } else {
-                        dto.setPlanName("N/A");
+                        logger.warn("Plan ID {} found on user {} but MembershipPlan entity is missing.", row.getPlanId(), row.getUserId());
+                        dto.setPlanName("Unknown/Deleted Plan"); // Better descriptive fallback
                     }
                     return dto;
                 }).collect(Collectors.toList());
@@ -81,42 +69,35 @@ public class DashboardService {
     }
 
     public Map<String, Long> getPlanDistribution() {
-        // Collect Active members and group them by plan name.
-        return userRepository.findAll().stream()
-                .filter(user -> "Active".equalsIgnoreCase(user.getMembershipStatus()))
-                .collect(Collectors.groupingBy(
-                        user -> {
-                            // Only perform lookup for users who should have a plan
-                            if (user.getCurrentPlanId() != null) {
-                                MembershipPlan plan = membershipPlanRepository.findById(user.getCurrentPlanId()).orElse(null);
-                                if (plan != null) {
-                                    return plan.getPlanName();
-                                } else {
-                                    logger.warn("Active user {} has missing Plan ID: {}", user.getUserId(), user.getCurrentPlanId());
-                                    return "Unknown/Deleted Plan";
-                                }
-                            }
-                            return "No Plan Assigned"; // Should not happen for "Active" users, but as a fallback
-                        },
-                        Collectors.counting()
-                ));
+        // Active members grouped by plan in the database; only one row per plan comes back.
+        Map<String, Long> distribution = new HashMap<>();
+        for (UserRepository.PlanMemberCount row : userRepository.countMembersByPlan("Active")) {
+            String planName;
+            if (row.getPlanId() == null) {
+                planName = "No Plan Assigned"; // Should not happen for "Active" users, but as a fallback
+            } else if (row.getPlanName() == null) {
+                logger.warn("{} active users reference missing Plan ID: {}", row.getMemberCount(), row.getPlanId());
+                planName = "Unknown/Deleted Plan";
+            } else {
+                planName = row.getPlanName();
+            }
+            distribution.merge(planName, row.getMemberCount(), Long::sum);
+        }
+        return distribution;
     }
 
     public Map<LocalDate, Long> getDailyAttendanceData(LocalDate startDate, LocalDate endDate) {
         return attendanceService.getDailyAttendanceCount(startDate, endDate);
     }
 
-    // MODIFIED: Use UserRepository's findBySearchQuery
-    public List<User> searchUsers(String query) {
-        // Create a Pageable object for the search query. For a search dropdown,
-        // we'll fetch a reasonable number of results (e.g., first 20).
-        Pageable pageable = PageRequest.of(0, 20);
-
-        // Call the comprehensive search method from UserRepository.
-        return userRepository.findBySearchQuery(query, pageable).getContent();
+    // Served from the in-memory MemberSearchIndex instead of a LIKE query
+    public List<MemberSummaryDTO> searchUsers(String query, int limit) {
+        return memberSearchIndex.search(query, limit);
     }
 
-    public List<User> filterUsersByStatus(String status) {
-        return userRepository.findByMembershipStatus(status);
+    // Selects only the summary columns, one page at a time
+    public Page<MemberSummaryDTO> filterUsersByStatus(String status, Pageable pageable) {
+        return userRepository.findSummariesByMembershipStatus(status, pageable)
+                .map(view -> new MemberSummaryDTO(view.getUserId(), view.getName(), view.getContactNumber(), view.getMembershipStatus()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.util.Locale;
+
+/** Line-oriented file formats accepted by the member import and produced by the exports. */
+public enum DataFileFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    DataFileFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Lenient lookup for request parameters and Content-Type headers; anything that is not NDJSON/JSON is CSV
+    public static DataFileFormat fromString(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains("json") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,184 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.gymmanagementsystem.model.Money;
+import com.gym.gymmanagementsystem.repository.AttendanceRepository;
+import com.gym.gymmanagementsystem.repository.PaymentRepository;
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the HTTP response as CSV or NDJSON.
+ * Rows come from forward-only scalar queries (no entities, no DTO lists) and are written as they are read,
+ * so memory use stays flat regardless of table size. Each export runs in one read-only transaction,
+ * which PostgreSQL needs for the fetch size to take effect.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public enum Dataset { USERS, PAYMENTS, ATTENDANCE }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    private static final List<Column<UserRepository.UserExportRow>> USER_COLUMNS = List.of(
+            new Column<>("userId", UserRepository.UserExportRow::getUserId),
+            new Column<>("name", UserRepository.UserExportRow::getName),
+            new Column<>("age", UserRepository.UserExportRow::getAge),
+            new Column<>("gender", UserRepository.UserExportRow::getGender),
+            new Column<>("contactNumber", UserRepository.UserExportRow::getContactNumber),
+            new Column<>("membershipStatus", UserRepository.UserExportRow::getMembershipStatus),
+            new Column<>("joiningDate", UserRepository.UserExportRow::getJoiningDate),
+            new Column<>("currentPlanId", UserRepository.UserExportRow::getCurrentPlanId),
+            new Column<>("currentPlanStartDate", UserRepository.UserExportRow::getCurrentPlanStartDate),
+            new Column<>("currentPlanEndDate", UserRepository.UserExportRow::getCurrentPlanEndDate));
+
+    private static final List<Column<PaymentRepository.PaymentExportRow>> PAYMENT_COLUMNS = List.of(
+            new Column<>("paymentId", PaymentRepository.PaymentExportRow::getPaymentId),
+            new Column<>("userId", PaymentRepository.PaymentExportRow::getUserId),
+            new Column<>("userName", PaymentRepository.PaymentExportRow::getUserName),
+            new Column<>("amount", row -> rupees(row.getAmount())),
+            new Column<>("dueAmount", row -> rupees(row.getDueAmount())),
+            new Column<>("totalMembershipFee", row -> rupees(row.getTotalMembershipFee())),
+            new Column<>("membershipPlanId", PaymentRepository.PaymentExportRow::getMembershipPlanId),
+            new Column<>("membershipSession", PaymentRepository.PaymentExportRow::getMembershipSession),
+            new Column<>("paymentDate", PaymentRepository.PaymentExportRow::getPaymentDate),
+            new Column<>("paymentMethod", PaymentRepository.PaymentExportRow::getPaymentMethod),
+            new Column<>("paymentMethodDetail", PaymentRepository.PaymentExportRow::getPaymentMethodDetail),
+            new Column<>("transactionId", PaymentRepository.PaymentExportRow::getTransactionId),
+            new Column<>("notes", PaymentRepository.PaymentExportRow::getNotes));
+
+    private static final List<Column<AttendanceRepository.AttendanceExportRow>> ATTENDANCE_COLUMNS = List.of(
+            new Column<>("attendanceId", AttendanceRepository.AttendanceExportRow::getAttendanceId),
+            new Column<>("userId", AttendanceRepository.AttendanceExportRow::getUserId),
+            new Column<>("userName", AttendanceRepository.AttendanceExportRow::getUserName),
+            new Column<>("checkInTime", AttendanceRepository.AttendanceExportRow::getCheckInTime),
+            new Column<>("checkOutTime", AttendanceRepository.AttendanceExportRow::getCheckOutTime),
+            new Column<>("timeSpentMinutes", AttendanceRepository.AttendanceExportRow::getTimeSpentMinutes),
+            new Column<>("attendanceDate", AttendanceRepository.AttendanceExportRow::getAttendanceDate));
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public StreamingResponseBody export(Dataset dataset, DataFileFormat format) {
+        return switch (dataset) {
+            case USERS -> body(userRepository::streamAllForExport, USER_COLUMNS, format);
+            case PAYMENTS -> body(paymentRepository::streamAllForExport, PAYMENT_COLUMNS, format);
+            case ATTENDANCE -> body(attendanceRepository::streamAllForExport, ATTENDANCE_COLUMNS, format);
+        };
+    }
+
+    private <T> StreamingResponseBody body(Supplier<Stream<T>> query, List<Column<T>> columns, DataFileFormat format) {
+        return out -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            long[] written = new long[1];
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    written[0] = format == DataFileFormat.CSV
+                            ? writeCsv(rows.iterator(), columns, out)
+                            : writeNdjson(rows.iterator(), columns, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Exported {} rows as {}.", written[0], format);
+        };
+    }
+
+    private <T> long writeCsv(Iterator<T> rows, List<Column<T>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < columns.size(); i++) {
+            writer.write(i == 0 ? "" : ",");
+            writer.write(columns.get(i).name());
+        }
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writer.write(csvField(value instanceof String text ? withoutFormula(text) : value.toString()));
+                }
+            }
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private <T> long writeNdjson(Iterator<T> rows, List<Column<T>> columns, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.hasNext()) {
+                T row = rows.next();
+                generator.writeStartObject();
+                for (Column<T> column : columns) {
+                    generator.writeObjectField(column.name(), column.value().apply(row));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Exports show money in rupees with two decimals, as stored
+    private static BigDecimal rupees(Long paise) {
+        return paise != null ? Money.toRupeeDecimal(paise) : null;
+    }
+
+    // Member-entered text starting like a formula would be evaluated by Excel or Sheets; a leading ' makes it literal.
+    // Numbers and dates are not user text and keep their plain form (a negative amount stays a number).
+    private static String withoutFormula(String text) {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return text;
+    }
+
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
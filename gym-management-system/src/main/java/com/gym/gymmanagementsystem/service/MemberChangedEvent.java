@@ -0,0 +1,23 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after member rows are created, updated or deleted, so in-process member caches can refresh.
+ * An empty userIds collection means "any member may have changed" (bulk writes).
+ */
+public record MemberChangedEvent(Collection<Integer> userIds) {
+
+    public static MemberChangedEvent of(Integer userId) {
+        return new MemberChangedEvent(List.of(userId));
+    }
+
+    public static MemberChangedEvent allMembers() {
+        return new MemberChangedEvent(List.of());
+    }
+
+    public boolean affectsAllMembers() {
+        return userIds.isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compact per-member record of what the check-in desk needs (name, status, plan end date),
+ * so a swipe does not load the full User entity. Entries are evicted when the member changes
+ * and otherwise expire after a short time, which bounds staleness for writes made on other instances.
+ * A load that overlaps an eviction is not cached: the row it read may predate the write that caused the eviction.
+ */
+@Service
+public class MemberEligibilityCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${attendance.eligibility-cache.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    private final Map<Integer, Eligibility> eligibilityByUserId = new ConcurrentHashMap<>();
+    // Bumped by every eviction; a loader only caches its row if no eviction happened since it started reading
+    private final AtomicLong evictionGeneration = new AtomicLong();
+
+    public record Eligibility(Integer userId, String name, String membershipStatus, LocalDate currentPlanEndDate,
+                              long loadedAtMillis) {
+    }
+
+    public Optional<Eligibility> get(Integer userId) {
+        Eligibility cached = eligibilityByUserId.get(userId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < maxAgeMs) {
+            return Optional.of(cached);
+        }
+        long generation = evictionGeneration.get();
+        Optional<Eligibility> loaded = userRepository.findEligibilityByUserId(userId)
+                .map(view -> new Eligibility(view.getUserId(), view.getName(), view.getMembershipStatus(),
+                        view.getCurrentPlanEndDate(), System.currentTimeMillis()));
+        // compute() holds the entry's lock, so this check and an eviction of the same member cannot interleave
+        eligibilityByUserId.compute(userId, (id, current) ->
+                evictionGeneration.get() == generation ? loaded.orElse(null) : current);
+        return loaded;
+    }
+
+    // Runs after the writing transaction commits. A reader that loaded the old row before the commit cannot
+    // cache it afterwards, because the generation it started from is gone.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.affectsAllMembers()) {
+            evictionGeneration.incrementAndGet();
+            eligibilityByUserId.clear();
+        } else {
+            event.userIds().forEach(userId -> eligibilityByUserId.compute(userId, (id, current) -> {
+                evictionGeneration.incrementAndGet();
+                return null;
+            }));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Hands out 6-digit member IDs from blocks reserved through {@link MemberIdBlockSource}.
+ * Within a block no database access is needed; IDs left unused when the application stops are simply skipped.
+ */
+@Service
+public class MemberIdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberIdAllocator.class);
+
+    @Autowired
+    private MemberIdBlockSource memberIdBlockSource;
+
+    private final Deque<Integer> available = new ArrayDeque<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        memberIdBlockSource.initialize();
+    }
+
+    public synchronized Integer nextId() {
+        while (available.isEmpty()) {
+            MemberIdBlockSource.Block block = memberIdBlockSource.reserveBlock();
+            available.addAll(block.freeIds());
+            if (available.isEmpty() && block.exhaustsIdSpace()) {
+                throw new RuntimeException("No 6-digit User IDs left to allocate.");
+            }
+            logger.debug("Reserved member ID block at counter {} ({} free IDs).", block.firstCounter(), block.freeIds().size());
+        }
+        return available.poll();
+    }
+}
@@ -0,0 +1,36 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.util.List;
+
+/**
+ * Database-specific reservation of member ID blocks.
+ * A shared counter (a sequence, or a one-row table on MySQL) hands out BLOCK_SIZE consecutive counter values
+ * per reservation; each counter value is mapped to a 6-digit ID by {@link #permute(long)}, a bijection on
+ * 100000..999999, so every instance gets disjoint IDs that do not look sequential.
+ */
+public interface MemberIdBlockSource {
+
+    int BLOCK_SIZE = 50;
+    long ID_SPACE = 900_000L;
+    long FIRST_ID = 100_000L;
+    // MULTIPLIER is coprime to ID_SPACE (2^5 * 3^2 * 5^5), which makes the affine map a permutation
+    long MULTIPLIER = 387_799L;
+    long OFFSET = 123_457L;
+
+    static int permute(long counter) {
+        return (int) (FIRST_ID + Math.floorMod(MULTIPLIER * counter + OFFSET, ID_SPACE));
+    }
+
+    record Block(long firstCounter, List<Integer> freeIds) {
+
+        public boolean exhaustsIdSpace() {
+            return firstCounter + BLOCK_SIZE >= ID_SPACE;
+        }
+    }
+
+    /** Creates the counter if it does not exist yet. */
+    void initialize();
+
+    /** Reserves the next block and returns its IDs, minus any already taken by existing members. */
+    Block reserveBlock();
+}
@@ -0,0 +1,222 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.dto.MemberSummaryDTO;
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process typeahead index over all members, used by the dashboard search dropdown.
+ * Every member contributes a few tokens (each word of the lower-cased name, the user ID, and every suffix of the
+ * contact number digits down to MIN_CONTACT_SUFFIX digits) to a sorted map keyed "token\0userId", so a prefix query
+ * is one range scan instead of a table scan. Names match by word prefix; thanks to the suffixes, digits match
+ * anywhere in the contact number except within its last few digits (e.g. the desk's search by phone-number tail).
+ * Kept current from MemberChangedEvent after each committed local write, and rebuilt periodically so writes made
+ * by other instances show up within rebuild-interval-ms.
+ */
+@Service
+public class MemberSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberSearchIndex.class);
+    private static final char KEY_SEPARATOR = '\0';
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final int MIN_CONTACT_SUFFIX = 4;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record Entry(Integer userId, String name, String contactNumber, String membershipStatus, List<String> tokens) {
+    }
+
+    // One generation of the index. Searches read whichever generation is current; a rebuild fills a new one and swaps it in.
+    private static final class Index {
+        private final Map<Integer, Entry> entriesById = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Integer> tokenIndex = new ConcurrentSkipListMap<>();
+
+        private void put(Integer userId, String name, String contactNumber, String membershipStatus) {
+            List<String> tokens = new ArrayList<>(tokenize(name));
+            tokens.add(userId.toString());
+            if (contactNumber != null) {
+                String digits = NON_DIGITS.matcher(contactNumber).replaceAll("");
+                tokens.add(digits);
+                for (int start = 1; start <= digits.length() - MIN_CONTACT_SUFFIX; start++) {
+                    tokens.add(digits.substring(start));
+                }
+            }
+            List<String> distinctTokens = tokens.stream().filter(token -> !token.isEmpty()).distinct().toList();
+            entriesById.put(userId, new Entry(userId, name, contactNumber, membershipStatus, distinctTokens));
+            for (String token : distinctTokens) {
+                tokenIndex.put(token + KEY_SEPARATOR + userId, userId);
+            }
+        }
+
+        private void remove(Integer userId) {
+            Entry previous = entriesById.remove(userId);
+            if (previous != null) {
+                for (String token : previous.tokens()) {
+                    tokenIndex.remove(token + KEY_SEPARATOR + userId);
+                }
+            }
+        }
+    }
+
+    private volatile Index index = new Index();
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    // Members changed while a rebuild is reading the table (guarded by writeLock); null when no rebuild is running
+    private Set<Integer> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            Index rebuilt = new Index();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<UserRepository.UserExportRow> rows = userRepository.streamAllForExport()) {
+                        rows.forEach(row -> rebuilt.put(row.getUserId(), row.getName(), row.getContactNumber(), row.getMembershipStatus()));
+                    }
+                });
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            List<Integer> replay;
+            synchronized (writeLock) {
+                replay = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild = null;
+                index = rebuilt;
+            }
+            // The rebuild may have read some of these rows before their writes committed
+            if (!replay.isEmpty()) {
+                apply(replay);
+            }
+            logger.info("Member search index loaded {} members ({} tokens).", rebuilt.entriesById.size(), rebuilt.tokenIndex.size());
+        }
+    }
+
+    // Picks up members created, changed or deleted through other instances, which publish no local events
+    @Scheduled(fixedDelayString = "${dashboard.search-index.rebuild-interval-ms:300000}",
+               initialDelayString = "${dashboard.search-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.affectsAllMembers()) {
+            load();
+            return;
+        }
+        apply(event.userIds());
+    }
+
+    /**
+     * Members whose every query word prefixes one of their tokens. An exact user ID match comes first; the rest
+     * follow in token order (alphabetical completions of the first word), so the scan stops after {@code limit} hits.
+     */
+    public List<MemberSummaryDTO> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        Map<Integer, Entry> hits = new LinkedHashMap<>();
+        String trimmed = query.trim();
+        if (trimmed.chars().allMatch(Character::isDigit) && trimmed.length() <= 9) {
+            Entry exact = current.entriesById.get(Integer.valueOf(trimmed));
+            if (exact != null) {
+                hits.put(exact.userId(), exact);
+            }
+        }
+
+        String first = words.get(0);
+        // Keys are "token\0id", so every key starting with the prefix sorts between prefix and prefix + MAX_VALUE
+        for (Integer userId : current.tokenIndex.subMap(first, true, first + Character.MAX_VALUE, true).values()) {
+            if (hits.size() >= limit) {
+                break;
+            }
+            if (hits.containsKey(userId)) {
+                continue;
+            }
+            Entry entry = current.entriesById.get(userId);
+            if (entry != null && matchesAll(entry, words)) {
+                hits.put(userId, entry);
+            }
+        }
+        return hits.values().stream()
+                .map(entry -> new MemberSummaryDTO(entry.userId(), entry.name(), entry.contactNumber(), entry.membershipStatus()))
+                .toList();
+    }
+
+    public int size() {
+        return index.entriesById.size();
+    }
+
+    // The read happens under the lock, so of two events for one member the later read is also the later write
+    private void apply(Collection<Integer> userIds) {
+        synchronized (writeLock) {
+            List<UserRepository.MemberSummaryView> current = userRepository.findSearchViewsByUserIdIn(userIds);
+            userIds.forEach(index::remove);
+            current.forEach(view -> index.put(view.getUserId(), view.getName(), view.getContactNumber(), view.getMembershipStatus()));
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(userIds);
+            }
+        }
+    }
+
+    private static boolean matchesAll(Entry entry, List<String> words) {
+        for (String word : words) {
+            boolean matched = false;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(word)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Stream.of(text.toLowerCase(Locale.ROOT).trim().split("\\s+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps users.membership_status current so read paths can trust the column instead of re-deriving it.
+ * Writes already derive the status (UserService.deriveAndSetUserStatus); the only thing that changes it
+ * without a write is the calendar, so this flips newly ended memberships to Expired in one set-based
+ * UPDATE just after midnight, and once at startup to catch up after downtime.
+ */
+@Service
+public class MembershipExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(MembershipExpirySweeper.class);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Void on purpose: Spring publishes a non-null return value of an @EventListener method as a new event
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${membership.expiry-sweep.cron:0 1 0 * * *}")
+    @Transactional
+    public void runSweep() {
+        sweep();
+    }
+
+    /** Runs one sweep and returns the number of memberships flipped to Expired. */
+    @Transactional
+    public int sweep() {
+        LocalDate today = LocalDate.now();
+        int backfilled = userRepository.deriveMissingMembershipStatuses(today);
+        List<Integer> expiring = userRepository.findActiveUserIdsEndedBy(today);
+        int expired = expiring.isEmpty() ? 0 : userRepository.expireMembershipsEndedBy(today);
+        if (backfilled > 0) {
+            eventPublisher.publishEvent(MemberChangedEvent.allMembers());
+        } else if (!expiring.isEmpty()) {
+            eventPublisher.publishEvent(new MemberChangedEvent(expiring));
+        }
+        logger.info("Membership expiry sweep for {}: {} expired, {} missing statuses derived.", today, expired, backfilled);
+        return expired;
+    }
+}
@@ -0,0 +1,166 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through, in-process copy of the whole membership_plans table.
+ * Lookups are served from an immutable snapshot keyed by planId; the snapshot is replaced
+ * atomically after MembershipPlanService commits a write, and reloaded once it is older than max-age-ms
+ * so price and duration changes made on another instance are picked up.
+ * The snapshot holds plain values read in a transaction of its own, never entities of a caller's persistence
+ * context; every lookup returns a fresh, unmanaged MembershipPlan that the caller may modify.
+ */
+@Service
+public class MembershipPlanCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MembershipPlanCache.class);
+
+    @Autowired
+    private MembershipPlanRepository membershipPlanRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Upper bound on how long a hit may be served from a snapshot that another instance's write has made stale
+    @Value("${membership-plan-cache.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    // A miss reloads the table at most once per interval, so plans written by another instance still show up
+    // without dangling plan IDs (deleted plans still referenced by users) reaching the database on every row.
+    @Value("${membership-plan-cache.miss-reload-interval-ms:60000}")
+    private long missReloadIntervalMs;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    private record Snapshot(Map<Integer, CachedPlan> plansById, long loadedAtMillis) {
+    }
+
+    private record CachedPlan(Integer planId, String planName, Double price, Integer durationMonths, String featuresList) {
+
+        private static CachedPlan of(MembershipPlan plan) {
+            return new CachedPlan(plan.getPlanId(), plan.getPlanName(), plan.getPrice(), plan.getDurationMonths(),
+                    plan.getFeaturesList());
+        }
+
+        private MembershipPlan toPlan() {
+            MembershipPlan plan = new MembershipPlan();
+            plan.setPlanId(planId);
+            plan.setPlanName(planName);
+            plan.setPrice(price);
+            plan.setDurationMonths(durationMonths);
+            plan.setFeaturesList(featuresList);
+            return plan;
+        }
+    }
+
+    public Optional<MembershipPlan> getPlan(Integer planId) {
+        if (planId == null) {
+            return Optional.empty();
+        }
+        CachedPlan plan = reloadIfOlderThan(maxAgeMs).plansById().get(planId);
+        if (plan != null) {
+            hits.increment();
+            return Optional.of(plan.toPlan());
+        }
+        misses.increment();
+        return Optional.ofNullable(reloadIfOlderThan(missReloadIntervalMs).plansById().get(planId)).map(CachedPlan::toPlan);
+    }
+
+    public Map<Integer, MembershipPlan> getPlans(Collection<Integer> planIds) {
+        Map<Integer, MembershipPlan> result = new HashMap<>();
+        for (Integer planId : planIds) {
+            if (planId != null && !result.containsKey(planId)) {
+                getPlan(planId).ifPresent(plan -> result.put(planId, plan));
+            }
+        }
+        return result;
+    }
+
+    public List<MembershipPlan> getAllPlans() {
+        hits.increment();
+        return reloadIfOlderThan(maxAgeMs).plansById().values().stream()
+                .sorted(Comparator.comparing(CachedPlan::planId))
+                .map(CachedPlan::toPlan)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the snapshot once the surrounding transaction commits, or immediately when there is none.
+     * A rolled-back write therefore never becomes visible through the cache.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        // Own read-only transaction: the caller's snapshot may predate another instance's write, and the
+        // entities loaded here must not join the caller's persistence context
+        TransactionTemplate loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTransaction.setReadOnly(true);
+        Map<Integer, CachedPlan> plansById = loadTransaction.execute(status -> membershipPlanRepository.findAll().stream()
+                .collect(Collectors.toMap(MembershipPlan::getPlanId, CachedPlan::of)));
+        snapshot.set(new Snapshot(Map.copyOf(plansById), System.currentTimeMillis()));
+        reloads.increment();
+        logger.info("Membership plan cache loaded {} plans.", plansById.size());
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("reloads", reloads.sum());
+        Snapshot current = snapshot.get();
+        stats.put("size", current != null ? (long) current.plansById().size() : 0L);
+        return stats;
+    }
+
+    private Snapshot reloadIfOlderThan(long ageMs) {
+        Snapshot current = snapshot.get();
+        if (current != null && System.currentTimeMillis() - current.loadedAtMillis() < ageMs) {
+            return current;
+        }
+        // One thread reloads; the others wait for its snapshot instead of each reading the table
+        synchronized (this) {
+            current = snapshot.get();
+            if (current == null || System.currentTimeMillis() - current.loadedAtMillis() >= ageMs) {
+                refresh();
+                current = snapshot.get();
+            }
+            return current;
+        }
+    }
+}
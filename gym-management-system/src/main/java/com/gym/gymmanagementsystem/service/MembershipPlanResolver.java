@@ -0,0 +1,30 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the membership plans referenced by a page of rows in one step,
+ * so DTO mappers can look plan names up from a map instead of querying per row.
+ * Plans are served from {@link MembershipPlanCache}.
+ */
+@Service
+public class MembershipPlanResolver {
+
+    @Autowired
+    private MembershipPlanCache membershipPlanCache;
+
+    public Map<Integer, MembershipPlan> resolvePlans(Collection<Integer> planIds) {
+        return membershipPlanCache.getPlans(planIds);
+    }
+
+    public <T> Map<Integer, MembershipPlan> resolvePlansFor(Collection<T> rows, Function<T, Integer> planIdOf) {
+        return resolvePlans(rows.stream().map(planIdOf).collect(Collectors.toList()));
+    }
+}
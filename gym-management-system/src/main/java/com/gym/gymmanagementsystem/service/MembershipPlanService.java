@@ -6,9 +6,11 @@ import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
 import com.gym.gymmanagementsystem.repository.UserRepository; // Keep UserRepository if still used
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate; // Keep if needed for date logic (e.g., expiring memberships if handled here)
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -17,22 +19,28 @@ public class MembershipPlanService {
 
     @Autowired
     private MembershipPlanRepository planRepository;
+    @Autowired
+    private MembershipPlanCache membershipPlanCache;
 
     // REMOVED PlanAssignmentRepository injection
     // REMOVED UserRepository injection (if it's only used for PlanAssignment logic which is now gone)
 
+    @Transactional
     public MembershipPlan addPlan(MembershipPlan plan) {
-        return planRepository.save(plan);
+        MembershipPlan savedPlan = planRepository.save(plan);
+        membershipPlanCache.refreshAfterCommit();
+        return savedPlan;
     }
 
     public List<MembershipPlan> getAllPlans() {
-        return planRepository.findAll();
+        return membershipPlanCache.getAllPlans();
     }
 
     public Optional<MembershipPlan> getPlanById(Integer planId) {
-        return planRepository.findById(planId);
+        return membershipPlanCache.getPlan(planId);
     }
 
+    @Transactional
     public MembershipPlan updatePlan(Integer planId, MembershipPlanDTO planDTO) {
         MembershipPlan plan = planRepository.findById(planId)
                 .orElseThrow(() -> new RuntimeException("Membership Plan not found with id: " + planId));
@@ -43,12 +51,20 @@ public class MembershipPlanService {
         plan.setDurationMonths(planDTO.getDurationMonths());
         plan.setFeaturesList(planDTO.getFeaturesList());
 
-        return planRepository.save(plan);
+        MembershipPlan savedPlan = planRepository.save(plan);
+        membershipPlanCache.refreshAfterCommit();
+        return savedPlan;
     }
 
+    @Transactional
     public void deletePlan(Integer planId) {
         planRepository.deleteById(planId);
+        membershipPlanCache.refreshAfterCommit();
+    }
+
+    public Map<String, Long> getPlanCacheStats() {
+        return membershipPlanCache.getStats();
     }
 
     // REMOVED all methods related to PlanAssignment (e.g., assignPlanToUser, getPlanAssignmentsByUserId)
-}
\ No newline at end of file
+}
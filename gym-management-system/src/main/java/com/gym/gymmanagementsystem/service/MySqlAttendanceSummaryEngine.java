@@ -0,0 +1,118 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * MySQL implementation: ON DUPLICATE KEY UPDATE with VALUES(), YEAR() and MONTH().
+ */
+public class MySqlAttendanceSummaryEngine implements AttendanceSummaryEngine {
+
+    // This query inserts completed records from the temporary 'attendance' table
+    // into the persistent 'daily_attendance' table.
+    // It relies on the UNIQUE constraint on (user_id, attendance_date) in daily_attendance.
+    private static final String COPY_TO_PERSISTENT_DAILY_SQL = """
+            INSERT INTO daily_attendance (user_id, check_in, check_out, time_spent_minutes, attendance_date)
+            SELECT
+                att.user_id,
+                att.check_in_time,      -- Map from 'check_in_time' in temporary 'attendance' table
+                att.check_out_time,     -- Map from 'check_out_time' in temporary 'attendance' table
+                att.time_spent_minutes,
+                att.attendance_date
+            FROM
+                attendance att           -- Source is the TEMPORARY 'attendance' table
+            WHERE
+                att.check_out_time IS NOT NULL     -- Only include completed sessions
+                AND att.time_spent_minutes IS NOT NULL
+                AND att.check_out_time BETWEEN ? AND ?  -- Only sessions completed since the last run
+            ON DUPLICATE KEY UPDATE
+                -- Update existing records if the same user/date combination already exists
+                -- This ensures idempotency for daily_attendance itself
+                check_in = VALUES(check_in),
+                check_out = VALUES(check_out),
+                time_spent_minutes = VALUES(time_spent_minutes);
+            """;
+
+    // Source for monthly summary is the PERSISTENT 'daily_attendance' table, restricted to the touched months
+    private static final String MONTHLY_AGGREGATION_SQL = """
+            INSERT INTO monthly_attendance_summary (user_id, year, month, total_present_days, total_minutes_spent)
+            SELECT
+                da.user_id,
+                YEAR(da.attendance_date),
+                MONTH(da.attendance_date),
+                COUNT(DISTINCT da.attendance_date),
+                SUM(da.time_spent_minutes)
+            FROM
+                daily_attendance da -- Source is PERSISTENT 'daily_attendance' table
+                JOIN (
+                    SELECT DISTINCT
+                        att.user_id,
+                        DATE_SUB(att.attendance_date, INTERVAL DAYOFMONTH(att.attendance_date) - 1 DAY) AS month_start
+                    FROM attendance att
+                    WHERE att.check_out_time IS NOT NULL
+                      AND att.time_spent_minutes IS NOT NULL
+                      AND att.check_out_time BETWEEN ? AND ?
+                ) touched
+                    ON touched.user_id = da.user_id
+                   AND da.attendance_date >= touched.month_start
+                   AND da.attendance_date < touched.month_start + INTERVAL 1 MONTH
+            WHERE
+                da.check_out IS NOT NULL -- Always ensure completed sessions are summarized
+                AND da.time_spent_minutes IS NOT NULL
+            GROUP BY
+                da.user_id,
+                YEAR(da.attendance_date),
+                MONTH(da.attendance_date)
+            ON DUPLICATE KEY UPDATE
+                total_present_days = VALUES(total_present_days),
+                total_minutes_spent = VALUES(total_minutes_spent);
+            """;
+
+    private static final String YEARLY_AGGREGATION_SQL = """
+            INSERT INTO yearly_attendance_summary (user_id, year, total_present_days, total_minutes_spent)
+            SELECT
+                mas.user_id,
+                mas.year,
+                SUM(mas.total_present_days),
+                SUM(mas.total_minutes_spent)
+            FROM
+                monthly_attendance_summary mas
+                JOIN (
+                    SELECT DISTINCT att.user_id, YEAR(att.attendance_date) AS year
+                    FROM attendance att
+                    WHERE att.check_out_time IS NOT NULL
+                      AND att.time_spent_minutes IS NOT NULL
+                      AND att.check_out_time BETWEEN ? AND ?
+                ) touched
+                    ON touched.user_id = mas.user_id
+                   AND touched.year = mas.year
+            GROUP BY
+                mas.user_id,
+                mas.year
+            ON DUPLICATE KEY UPDATE
+                total_present_days = VALUES(total_present_days),
+                total_minutes_spent = VALUES(total_minutes_spent);
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MySqlAttendanceSummaryEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int copyCompletedSessions(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(COPY_TO_PERSISTENT_DAILY_SQL, from, upTo);
+    }
+
+    @Override
+    public int refreshMonthlySummaries(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(MONTHLY_AGGREGATION_SQL, from, upTo);
+    }
+
+    @Override
+    public int refreshYearlySummaries(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(YEARLY_AGGREGATION_SQL, from, upTo);
+    }
+}
@@ -0,0 +1,61 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * MySQL implementation: INSERT ... ON DUPLICATE KEY UPDATE with the guard folded into IF() expressions.
+ * MySQL has no RETURNING, so the row is read back (with a locking read) and the outcome is derived from which timestamp
+ * now holds {@code now}.
+ * A check-in is recognised by its own check-in time even if a racing swipe closed the session before the read-back,
+ * and is reported as the open session it wrote, like the PostgreSQL RETURNING row.
+ * Assignments are evaluated left to right, so version and time_spent_minutes are computed before check_out_time changes.
+ */
+public class MySqlCheckInToggleEngine implements CheckInToggleEngine {
+
+    private static final String TOGGLE_SQL = """
+            INSERT INTO attendance (user_id, check_in_time, attendance_date)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                version = IF(check_out_time IS NULL AND check_in_time <= VALUES(check_in_time) - INTERVAL ? MINUTE,
+                             version + 1, version),
+                time_spent_minutes = IF(check_out_time IS NULL AND check_in_time <= VALUES(check_in_time) - INTERVAL ? MINUTE,
+                                        TIMESTAMPDIFF(MINUTE, check_in_time, VALUES(check_in_time)), time_spent_minutes),
+                check_out_time = IF(check_out_time IS NULL AND check_in_time <= VALUES(check_in_time) - INTERVAL ? MINUTE,
+                                    VALUES(check_in_time), check_out_time)
+            """;
+
+    // A locking read returns the latest committed row, not the caller's REPEATABLE READ snapshot, which may predate
+    // a racing swipe's insert. The upsert already holds this row's lock, so it waits for nothing.
+    private static final String CURRENT_ROW_SQL = """
+            SELECT attendance_id, check_in_time, check_out_time, time_spent_minutes
+            FROM attendance
+            WHERE user_id = ? AND attendance_date = ?
+            FOR UPDATE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MySqlCheckInToggleEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public ToggleResult toggle(Integer userId, LocalDate attendanceDate, LocalDateTime now, int minStayMinutes) {
+        jdbcTemplate.update(TOGGLE_SQL, userId, now, attendanceDate, minStayMinutes, minStayMinutes, minStayMinutes);
+        return jdbcTemplate.queryForObject(CURRENT_ROW_SQL,
+                (rs, rowNum) -> {
+                    LocalDateTime checkInTime = rs.getObject("check_in_time", LocalDateTime.class);
+                    LocalDateTime checkOutTime = rs.getObject("check_out_time", LocalDateTime.class);
+                    if (now.equals(checkInTime)) {
+                        return new ToggleResult(Outcome.CHECKED_IN, rs.getInt("attendance_id"), checkInTime, null, null);
+                    }
+                    Outcome outcome = now.equals(checkOutTime) ? Outcome.CHECKED_OUT : Outcome.REJECTED;
+                    return new ToggleResult(outcome, rs.getInt("attendance_id"), checkInTime, checkOutTime,
+                            rs.getObject("time_spent_minutes", Long.class));
+                },
+                userId, attendanceDate);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MySQL implementation: MySQL has no sequences, so the counter is a one-row table advanced atomically with
+ * UPDATE ... LAST_INSERT_ID(expr) and read back on the same connection. Existing IDs are then filtered with one IN query.
+ * The counter update commits in its own transaction: the allocator keeps the block in memory whatever happens to the
+ * member insert that asked for it, so a rollback of the caller must not hand the same block out again, and the counter
+ * row lock must not be held until that caller commits.
+ */
+public class MySqlMemberIdBlockSource implements MemberIdBlockSource {
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS member_id_sequence (id INT PRIMARY KEY, next_counter BIGINT NOT NULL)";
+    private static final String SEED_ROW_SQL = "INSERT IGNORE INTO member_id_sequence (id, next_counter) VALUES (1, 0)";
+    private static final String RESERVE_BLOCK_SQL =
+            "UPDATE member_id_sequence SET next_counter = LAST_INSERT_ID(next_counter + " + BLOCK_SIZE + ") WHERE id = 1";
+    private static final String TAKEN_IDS_SQL = "SELECT user_id FROM users WHERE user_id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate reservationTransaction;
+
+    public MySqlMemberIdBlockSource(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void initialize() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.update(SEED_ROW_SQL);
+    }
+
+    @Override
+    public Block reserveBlock() {
+        // LAST_INSERT_ID() is per connection, so the update and the read must share one
+        long nextCounter = reservationTransaction.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(RESERVE_BLOCK_SQL);
+                        try (ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                            rs.next();
+                            return rs.getLong(1);
+                        }
+                    }
+                }));
+        long firstCounter = nextCounter - BLOCK_SIZE;
+
+        List<Integer> candidates = new ArrayList<>();
+        for (long counter = firstCounter; counter < firstCounter + BLOCK_SIZE && counter < ID_SPACE; counter++) {
+            candidates.add(MemberIdBlockSource.permute(counter));
+        }
+        if (candidates.isEmpty()) {
+            return new Block(firstCounter, candidates);
+        }
+        Set<Integer> taken = new HashSet<>(namedParameterJdbcTemplate.queryForList(TAKEN_IDS_SQL,
+                new MapSqlParameterSource("ids", candidates), Integer.class));
+        candidates.removeIf(taken::contains);
+        return new Block(firstCounter, candidates);
+    }
+}
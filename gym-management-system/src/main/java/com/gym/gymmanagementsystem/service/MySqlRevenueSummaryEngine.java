@@ -0,0 +1,65 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.model.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * MySQL implementation: ON DUPLICATE KEY UPDATE adding VALUES() to the stored totals.
+ */
+public class MySqlRevenueSummaryEngine implements RevenueSummaryEngine {
+
+    private static final String APPLY_DELTA_SQL = """
+            INSERT INTO daily_revenue_summary
+                (summary_date, payment_method, membership_plan_id, amount_total, due_total, fee_total, payment_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                amount_total = amount_total + VALUES(amount_total),
+                due_total = due_total + VALUES(due_total),
+                fee_total = fee_total + VALUES(fee_total),
+                payment_count = payment_count + VALUES(payment_count)
+            """;
+
+    private static final String CLEAR_SQL = "DELETE FROM daily_revenue_summary";
+
+    // InnoDB takes shared next-key locks on the scanned 'payments' rows for INSERT ... SELECT,
+    // which holds concurrent payment writes off until the rebuild commits.
+    private static final String REBUILD_SQL = """
+            INSERT INTO daily_revenue_summary
+                (summary_date, payment_method, membership_plan_id, amount_total, due_total, fee_total, payment_count)
+            SELECT
+                p.payment_date,
+                p.payment_method,
+                COALESCE(p.membership_plan_id, 0),
+                SUM(p.amount),
+                SUM(p.due_amount),
+                COALESCE(SUM(p.total_membership_fee), 0),
+                COUNT(*)
+            FROM
+                payments p
+            GROUP BY
+                p.payment_date,
+                p.payment_method,
+                COALESCE(p.membership_plan_id, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MySqlRevenueSummaryEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyDelta(LocalDate summaryDate, String paymentMethod, int membershipPlanId,
+                           long amount, long dueAmount, long totalMembershipFee, long paymentCount) {
+        jdbcTemplate.update(APPLY_DELTA_SQL, summaryDate, paymentMethod, membershipPlanId,
+                Money.toRupeeDecimal(amount), Money.toRupeeDecimal(dueAmount), Money.toRupeeDecimal(totalMembershipFee), paymentCount);
+    }
+
+    @Override
+    public int rebuild() {
+        jdbcTemplate.update(CLEAR_SQL);
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+}
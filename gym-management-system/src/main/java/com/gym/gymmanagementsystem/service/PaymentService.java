@@ -1,21 +1,29 @@
 package com.gym.gymmanagementsystem.service;
 
+import com.gym.gymmanagementsystem.dto.CursorPageDTO;
+import com.gym.gymmanagementsystem.dto.MemberDueSummaryDTO;
 import com.gym.gymmanagementsystem.dto.PaymentDTO;
 import com.gym.gymmanagementsystem.dto.PaymentResponseDTO;
 import com.gym.gymmanagementsystem.model.MembershipPlan;
+import com.gym.gymmanagementsystem.model.Money;
 import com.gym.gymmanagementsystem.model.Payment;
 import com.gym.gymmanagementsystem.model.User;
-import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
+import com.gym.gymmanagementsystem.model.DailyRevenueSummary;
+import com.gym.gymmanagementsystem.repository.DailyRevenueSummaryRepository.RevenueTotalsRow;
 import com.gym.gymmanagementsystem.repository.PaymentRepository;
+import com.gym.gymmanagementsystem.repository.PaymentRepository.OutstandingDueView;
 import com.gym.gymmanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,19 +41,25 @@ public class PaymentService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private MembershipPlanRepository membershipPlanRepository;
+    private MembershipPlanCache membershipPlanCache;
     @Autowired
     private UserService userService;
+    @Autowired
+    private MembershipPlanResolver membershipPlanResolver;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private RevenueSummaryService revenueSummaryService;
 
-    // Helper to convert Payment entity to PaymentResponseDTO
-    private PaymentResponseDTO convertToDto(Payment payment) {
+    // Helper to convert Payment entity to PaymentResponseDTO; plans must be pre-resolved for the whole page
+    private PaymentResponseDTO convertToDto(Payment payment, Map<Integer, MembershipPlan> plansById) {
         PaymentResponseDTO dto = new PaymentResponseDTO();
         dto.setPaymentId(payment.getPaymentId());
         dto.setUserId(payment.getUser().getUserId());
         dto.setUserName(payment.getUser().getName());
-        dto.setAmount(payment.getAmount());
-        dto.setDueAmount(payment.getDueAmount());
-        dto.setTotalMembershipFee(payment.getTotalMembershipFee());
+        dto.setAmount(Money.toRupees(payment.getAmount()));
+        dto.setDueAmount(Money.toRupees(payment.getDueAmount()));
+        dto.setTotalMembershipFee(payment.getTotalMembershipFee() != null ? Money.toRupees(payment.getTotalMembershipFee()) : null);
         dto.setMembershipSession(payment.getMembershipSession()); // NEW: Set membership session
         dto.setPaymentDate(payment.getPaymentDate());
         dto.setPaymentMethod(payment.getPaymentMethod());
@@ -53,14 +67,44 @@ public class PaymentService {
         dto.setMembershipPlanId(payment.getMembershipPlanId());
         dto.setTransactionId(payment.getTransactionId());
         dto.setNotes(payment.getNotes());
-        if (payment.getMembershipPlanId() != null) {
-            membershipPlanRepository.findById(payment.getMembershipPlanId()).ifPresent(plan -> {
-                dto.setMembershipPlanName(plan.getPlanName());
-            });
+        MembershipPlan plan = payment.getMembershipPlanId() != null ? plansById.get(payment.getMembershipPlanId()) : null;
+        if (plan != null) {
+            dto.setMembershipPlanName(plan.getPlanName());
+        }
+        return dto;
+    }
+
+    private PaymentResponseDTO convertToDto(OutstandingDueView view, Map<Integer, MembershipPlan> plansById) {
+        PaymentResponseDTO dto = new PaymentResponseDTO();
+        dto.setPaymentId(view.getPaymentId());
+        dto.setUserId(view.getUserId());
+        dto.setUserName(view.getUserName());
+        dto.setAmount(Money.toRupees(view.getAmount()));
+        dto.setDueAmount(Money.toRupees(view.getDueAmount()));
+        dto.setTotalMembershipFee(view.getTotalMembershipFee() != null ? Money.toRupees(view.getTotalMembershipFee()) : null);
+        dto.setMembershipSession(view.getMembershipSession());
+        dto.setPaymentDate(view.getPaymentDate());
+        dto.setPaymentMethod(view.getPaymentMethod());
+        dto.setMembershipPlanId(view.getMembershipPlanId());
+        MembershipPlan plan = view.getMembershipPlanId() != null ? plansById.get(view.getMembershipPlanId()) : null;
+        if (plan != null) {
+            dto.setMembershipPlanName(plan.getPlanName());
         }
         return dto;
     }
 
+    private PaymentResponseDTO convertToDto(Payment payment) {
+        return convertToDto(payment, membershipPlanResolver.resolvePlans(Collections.singletonList(payment.getMembershipPlanId())));
+    }
+
+    private List<PaymentResponseDTO> convertAllToDto(List<Payment> payments) {
+        // One findAllById for every plan referenced by the batch instead of one findById per payment
+        Map<Integer, MembershipPlan> plansById = membershipPlanResolver.resolvePlansFor(payments, Payment::getMembershipPlanId);
+        return payments.stream()
+                .map(payment -> convertToDto(payment, plansById))
+                .collect(Collectors.toList());
+    }
+
     // Helper to generate membership session string
     private String generateMembershipSessionString(LocalDate startDate, int durationMonths) {
         if (startDate == null) return null; // Defensive check
@@ -85,10 +129,12 @@ public class PaymentService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + paymentDTO.getUserId()));
         
         MembershipPlan selectedPlan = null;
+        // All due arithmetic below is in paise
+        long amount = Money.toPaise(paymentDTO.getAmount());
 
         Payment payment = new Payment();
         payment.setUser(user);
-        payment.setAmount(paymentDTO.getAmount());
+        payment.setAmount(amount);
         payment.setPaymentDate(paymentDTO.getPaymentDate());
         payment.setPaymentMethod(paymentDTO.getPaymentMethod());
         payment.setPaymentMethodDetail(paymentDTO.getPaymentMethodDetail());
@@ -99,35 +145,42 @@ public class PaymentService {
 
         if (paymentDTO.getOriginalPaymentId() != null) {
             // This is a new payment made towards an existing due.
-            Payment originalPayment = paymentRepository.findById(paymentDTO.getOriginalPaymentId())
+            // The original row stays locked until commit, so the due read here cannot be changed by a parallel settlement.
+            Payment originalPayment = paymentRepository.findByIdForUpdate(paymentDTO.getOriginalPaymentId())
                     .orElseThrow(() -> new RuntimeException("Original payment not found with ID: " + paymentDTO.getOriginalPaymentId()));
-            
-            double newOriginalDue = originalPayment.getDueAmount() - paymentDTO.getAmount();
-            originalPayment.setDueAmount(Math.max(0.0, newOriginalDue));
+            long previousOriginalDue = originalPayment.getDueAmount();
+            if (previousOriginalDue <= 0L) {
+                // e.g. a double-submitted settlement that lost the race for the lock
+                throw new RuntimeException("Payment " + originalPayment.getPaymentId() + " has no outstanding due.");
+            }
+
+            originalPayment.setDueAmount(Math.max(0L, previousOriginalDue - amount));
             paymentRepository.save(originalPayment); // Save the updated original payment
+            revenueSummaryService.adjustDue(originalPayment, previousOriginalDue);
 
             // For the *new* payment record (the "due payment" transaction):
-            payment.setTotalMembershipFee(0.0); // It's a payment towards a fee, not a full fee itself
-            payment.setDueAmount(0.0); // This transaction itself has no due
+            payment.setTotalMembershipFee(0L); // It's a payment towards a fee, not a full fee itself
+            payment.setDueAmount(0L); // This transaction itself has no due
             payment.setMembershipPlanId(originalPayment.getMembershipPlanId()); // Inherit plan ID
             payment.setMembershipSession(originalPayment.getMembershipSession()); // Inherit session from original payment
 
-            logger.info("Updated original payment " + originalPayment.getPaymentId() + " due to: " + originalPayment.getDueAmount());
+            logger.info("Updated original payment " + originalPayment.getPaymentId() + " due to: " + Money.toRupeeDecimal(originalPayment.getDueAmount()));
 
         } else {
             // This is a brand new payment (not a due payment)
             if (paymentDTO.getMembershipPlanId() != null) {
-                selectedPlan = membershipPlanRepository.findById(paymentDTO.getMembershipPlanId())
+                selectedPlan = membershipPlanCache.getPlan(paymentDTO.getMembershipPlanId())
                         .orElseThrow(() -> new RuntimeException("Membership Plan not found with ID: " + paymentDTO.getMembershipPlanId()));
-                payment.setTotalMembershipFee(selectedPlan.getPrice()); // Total fee is the plan price
+                long planPrice = Money.toPaise(selectedPlan.getPrice());
+                payment.setTotalMembershipFee(planPrice); // Total fee is the plan price
                 payment.setMembershipPlanId(selectedPlan.getPlanId());
                 payment.setMembershipSession(generateMembershipSessionString(paymentDTO.getPaymentDate(), selectedPlan.getDurationMonths())); // Generate session
 
                 // Calculate due for this new payment based on plan price
-                if (paymentDTO.getAmount() < selectedPlan.getPrice()) {
-                    payment.setDueAmount(selectedPlan.getPrice() - paymentDTO.getAmount());
+                if (amount < planPrice) {
+                    payment.setDueAmount(planPrice - amount);
                 } else {
-                    payment.setDueAmount(0.0); // Fully paid or overpaid
+                    payment.setDueAmount(0L); // Fully paid or overpaid
                 }
 
                 // Process membership plan assignment/renewal for new payments
@@ -155,32 +208,71 @@ public class PaymentService {
                 }
                 userService.deriveAndSetUserStatus(user);
                 userRepository.save(user);
+                eventPublisher.publishEvent(MemberChangedEvent.of(user.getUserId()));
 
             } else {
                 // New payment, no plan selected (ad-hoc payment)
-                payment.setTotalMembershipFee(paymentDTO.getAmount());
-                payment.setDueAmount(0.0);
+                payment.setTotalMembershipFee(amount);
+                payment.setDueAmount(0L);
                 payment.setMembershipPlanId(null);
                 payment.setMembershipSession("Ad-hoc Payment"); // Default session for ad-hoc
             }
         }
 
         Payment savedPayment = paymentRepository.save(payment);
+        revenueSummaryService.recordPayment(savedPayment);
         return convertToDto(savedPayment);
     }
     
 
     public Page<PaymentResponseDTO> getAllPayments(Pageable pageable) {
         Page<Payment> paymentsPage = paymentRepository.findAll(pageable);
-        return paymentsPage.map(this::convertToDto);
+        Map<Integer, MembershipPlan> plansById = membershipPlanResolver.resolvePlansFor(paymentsPage.getContent(), Payment::getMembershipPlanId);
+        return paymentsPage.map(payment -> convertToDto(payment, plansById));
+    }
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+
+    // Total for cursor listings, recomputed at most once a minute instead of a count(*) per page
+    private final CachedCount paymentCount = new CachedCount(() -> paymentRepository.count(), 60_000L);
+
+    public CursorPageDTO<PaymentResponseDTO> getPaymentsAfter(String after, int size, boolean includeTotal) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<Payment> rows;
+        if (after == null || after.isBlank()) {
+            rows = paymentRepository.findFirstKeysetPage(fetch);
+        } else {
+            String[] key = PageCursor.decode(after, 1);
+            try {
+                rows = paymentRepository.findKeysetPageAfter(Integer.valueOf(key[0]), fetch);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + after, e);
+            }
+        }
+        boolean hasNext = rows.size() > limit;
+        List<Payment> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? PageCursor.encode(page.get(page.size() - 1).getPaymentId()) : null;
+        return new CursorPageDTO<>(convertAllToDto(page), nextCursor, hasNext, includeTotal ? paymentCount.get() : null);
     }
 
     // NEW Method: Get all payments with outstanding due
     public List<PaymentResponseDTO> getOutstandingDuePayments() {
-        return paymentRepository.findByDueAmountGreaterThan(0.0)
-                                .stream()
-                                .map(this::convertToDto)
-                                .collect(Collectors.toList());
+        return convertAllToDto(paymentRepository.findAllOutstanding());
+    }
+
+    // Paged dues listing read through a narrow joined projection instead of Payment entities
+    public Page<PaymentResponseDTO> getOutstandingDuePayments(Pageable pageable) {
+        Page<OutstandingDueView> duesPage = paymentRepository.findOutstandingDues(pageable);
+        Map<Integer, MembershipPlan> plansById = membershipPlanResolver.resolvePlansFor(duesPage.getContent(), OutstandingDueView::getMembershipPlanId);
+        return duesPage.map(view -> convertToDto(view, plansById));
+    }
+
+    public Page<MemberDueSummaryDTO> getOutstandingDuesByMember(Pageable pageable) {
+        return paymentRepository.findOutstandingDueTotalsByMember(pageable)
+                .map(totals -> new MemberDueSummaryDTO(totals.getUserId(), totals.getUserName(), totals.getContactNumber(),
+                        totals.getOutstandingPayments(), totals.getTotalDueAmount().doubleValue(), totals.getOldestDueDate()));
     }
 
     public PaymentResponseDTO getPaymentById(Integer paymentId) {
@@ -194,54 +286,64 @@ public class PaymentService {
         if (payments.isEmpty()) {
             throw new RuntimeException("No payments found for user ID: " + userId);
         }
-        return payments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertAllToDto(payments);
     }
 
     @Transactional
     public void deletePayment(Integer paymentId) {
-        if (!paymentRepository.existsById(paymentId)) {
-            throw new RuntimeException("Payment record not found with ID: " + paymentId);
-        }
-        paymentRepository.deleteById(paymentId);
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment record not found with ID: " + paymentId));
+        revenueSummaryService.removePayment(payment);
+        paymentRepository.delete(payment);
     }
 
     public Map<String, Object> getPaymentAnalytics(LocalDate startDate, LocalDate endDate) {
-        List<Payment> payments = paymentRepository.findByPaymentDateBetween(startDate, endDate);
-        double totalAmountCollected = payments.stream().mapToDouble(Payment::getAmount).sum();
-        long totalPaymentsCount = payments.size();
-        double totalDueAmount = payments.stream().mapToDouble(Payment::getDueAmount).sum();
-
-        double totalExpectedAmount = payments.stream()
-            .filter(p -> p.getTotalMembershipFee() != null)
-            .mapToDouble(Payment::getTotalMembershipFee)
-            .sum();
-
-        Map<String, Double> amountByMethod = payments.stream()
-                .collect(Collectors.groupingBy(Payment::getPaymentMethod, Collectors.summingDouble(Payment::getAmount)));
-        double cashCollected = amountByMethod.getOrDefault("Cash", 0.0);
-        double cardCollected = amountByMethod.getOrDefault("Card", 0.0);
-        double onlineCollected = amountByMethod.getOrDefault("Online", 0.0);
-        Map<String, Long> countByMethod = payments.stream()
-                .collect(Collectors.groupingBy(Payment::getPaymentMethod, Collectors.counting()));
-        Map<String, Double> amountByPlan = payments.stream()
-                .filter(p -> p.getMembershipPlanId() != null)
-                .collect(Collectors.groupingBy(p -> membershipPlanRepository.findById(p.getMembershipPlanId())
-                        .map(MembershipPlan::getPlanName).orElse("Unknown Plan"),
-                        Collectors.summingDouble(Payment::getAmount)));
+        // Read from the daily rollup: one row per (method, plan) in the range, whatever the payment volume
+        List<RevenueTotalsRow> rows = revenueSummaryService.getTotalsByMethodAndPlan(startDate, endDate);
+        Map<Integer, MembershipPlan> plansById = membershipPlanResolver.resolvePlansFor(rows, RevenueTotalsRow::getMembershipPlanId);
+
+        // Sums are exact paise; they become rupee doubles only in the response
+        long totalAmountCollected = 0L;
+        long totalPaymentsCount = 0L;
+        long totalDueAmount = 0L;
+        long totalExpectedAmount = 0L;
+        Map<String, Long> amountByMethod = new HashMap<>();
+        Map<String, Long> countByMethod = new HashMap<>();
+        Map<String, Long> amountByPlan = new HashMap<>();
+        for (RevenueTotalsRow row : rows) {
+            long amount = Money.toPaise(row.getAmount());
+            totalAmountCollected += amount;
+            totalPaymentsCount += row.getPaymentCount();
+            totalDueAmount += Money.toPaise(row.getDueAmount());
+            if (row.getTotalMembershipFee() != null) {
+                totalExpectedAmount += Money.toPaise(row.getTotalMembershipFee());
+            }
+            amountByMethod.merge(row.getPaymentMethod(), amount, Long::sum);
+            countByMethod.merge(row.getPaymentMethod(), row.getPaymentCount(), Long::sum);
+            if (row.getMembershipPlanId() != DailyRevenueSummary.NO_PLAN) {
+                MembershipPlan plan = plansById.get(row.getMembershipPlanId());
+                amountByPlan.merge(plan != null ? plan.getPlanName() : "Unknown Plan", amount, Long::sum);
+            }
+        }
+
         Map<String, Object> analytics = new HashMap<>();
-        analytics.put("totalAmountCollected", totalAmountCollected);
+        analytics.put("totalAmountCollected", Money.toRupees(totalAmountCollected));
         analytics.put("totalPaymentsCount", totalPaymentsCount);
-        analytics.put("totalDueAmount", totalDueAmount);
-        analytics.put("totalExpectedAmount", totalExpectedAmount);
-        analytics.put("cashCollected", cashCollected);
-        analytics.put("cardCollected", cardCollected);
-        analytics.put("onlineCollected", onlineCollected);
-        analytics.put("amountByPaymentMethod", amountByMethod);
+        analytics.put("totalDueAmount", Money.toRupees(totalDueAmount));
+        analytics.put("totalExpectedAmount", Money.toRupees(totalExpectedAmount));
+        analytics.put("cashCollected", Money.toRupees(amountByMethod.getOrDefault("Cash", 0L)));
+        analytics.put("cardCollected", Money.toRupees(amountByMethod.getOrDefault("Card", 0L)));
+        analytics.put("onlineCollected", Money.toRupees(amountByMethod.getOrDefault("Online", 0L)));
+        analytics.put("amountByPaymentMethod", toRupees(amountByMethod));
         analytics.put("countByPaymentMethod", countByMethod);
-        analytics.put("amountByMembershipPlan", amountByPlan);
+        analytics.put("amountByMembershipPlan", toRupees(amountByPlan));
 
         return analytics;
     }
+
+    private static Map<String, Double> toRupees(Map<String, Long> paiseByKey) {
+        Map<String, Double> rupeesByKey = new HashMap<>();
+        paiseByKey.forEach((key, paise) -> rupeesByKey.put(key, Money.toRupees(paise)));
+        return rupeesByKey;
+    }
 }
\ No newline at end of file
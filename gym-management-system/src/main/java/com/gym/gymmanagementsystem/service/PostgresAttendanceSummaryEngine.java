@@ -0,0 +1,116 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * PostgreSQL implementation: INSERT ... ON CONFLICT DO UPDATE with EXCLUDED, and date_trunc for month buckets.
+ * Relies on the same unique keys as the MySQL version: (user_id, attendance_date) on daily_attendance,
+ * (user_id, year, month) on monthly_attendance_summary and (user_id, year) on yearly_attendance_summary.
+ */
+public class PostgresAttendanceSummaryEngine implements AttendanceSummaryEngine {
+
+    // DISTINCT ON keeps one session per (user, date): ON CONFLICT cannot touch the same target row twice in one statement.
+    private static final String COPY_TO_PERSISTENT_DAILY_SQL = """
+            INSERT INTO daily_attendance (user_id, check_in, check_out, time_spent_minutes, attendance_date)
+            SELECT DISTINCT ON (att.user_id, att.attendance_date)
+                att.user_id,
+                att.check_in_time,
+                att.check_out_time,
+                att.time_spent_minutes,
+                att.attendance_date
+            FROM
+                attendance att
+            WHERE
+                att.check_out_time IS NOT NULL
+                AND att.time_spent_minutes IS NOT NULL
+                AND att.check_out_time BETWEEN ? AND ?
+            ORDER BY
+                att.user_id, att.attendance_date, att.check_out_time DESC
+            ON CONFLICT (user_id, attendance_date) DO UPDATE SET
+                check_in = EXCLUDED.check_in,
+                check_out = EXCLUDED.check_out,
+                time_spent_minutes = EXCLUDED.time_spent_minutes
+            """;
+
+    private static final String MONTHLY_AGGREGATION_SQL = """
+            INSERT INTO monthly_attendance_summary (user_id, year, month, total_present_days, total_minutes_spent)
+            SELECT
+                da.user_id,
+                CAST(EXTRACT(YEAR FROM touched.month_start) AS INTEGER),
+                CAST(EXTRACT(MONTH FROM touched.month_start) AS INTEGER),
+                COUNT(DISTINCT da.attendance_date),
+                SUM(da.time_spent_minutes)
+            FROM
+                daily_attendance da
+                JOIN (
+                    SELECT DISTINCT
+                        att.user_id,
+                        CAST(date_trunc('month', att.attendance_date) AS DATE) AS month_start
+                    FROM attendance att
+                    WHERE att.check_out_time IS NOT NULL
+                      AND att.time_spent_minutes IS NOT NULL
+                      AND att.check_out_time BETWEEN ? AND ?
+                ) touched
+                    ON touched.user_id = da.user_id
+                   AND da.attendance_date >= touched.month_start
+                   AND da.attendance_date < touched.month_start + INTERVAL '1 month'
+            WHERE
+                da.check_out IS NOT NULL
+                AND da.time_spent_minutes IS NOT NULL
+            GROUP BY
+                da.user_id,
+                touched.month_start
+            ON CONFLICT (user_id, year, month) DO UPDATE SET
+                total_present_days = EXCLUDED.total_present_days,
+                total_minutes_spent = EXCLUDED.total_minutes_spent
+            """;
+
+    private static final String YEARLY_AGGREGATION_SQL = """
+            INSERT INTO yearly_attendance_summary (user_id, year, total_present_days, total_minutes_spent)
+            SELECT
+                mas.user_id,
+                mas.year,
+                SUM(mas.total_present_days),
+                SUM(mas.total_minutes_spent)
+            FROM
+                monthly_attendance_summary mas
+                JOIN (
+                    SELECT DISTINCT att.user_id, CAST(EXTRACT(YEAR FROM att.attendance_date) AS INTEGER) AS year
+                    FROM attendance att
+                    WHERE att.check_out_time IS NOT NULL
+                      AND att.time_spent_minutes IS NOT NULL
+                      AND att.check_out_time BETWEEN ? AND ?
+                ) touched
+                    ON touched.user_id = mas.user_id
+                   AND touched.year = mas.year
+            GROUP BY
+                mas.user_id,
+                mas.year
+            ON CONFLICT (user_id, year) DO UPDATE SET
+                total_present_days = EXCLUDED.total_present_days,
+                total_minutes_spent = EXCLUDED.total_minutes_spent
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresAttendanceSummaryEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int copyCompletedSessions(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(COPY_TO_PERSISTENT_DAILY_SQL, from, upTo);
+    }
+
+    @Override
+    public int refreshMonthlySummaries(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(MONTHLY_AGGREGATION_SQL, from, upTo);
+    }
+
+    @Override
+    public int refreshYearlySummaries(LocalDateTime from, LocalDateTime upTo) {
+        return jdbcTemplate.update(YEARLY_AGGREGATION_SQL, from, upTo);
+    }
+}
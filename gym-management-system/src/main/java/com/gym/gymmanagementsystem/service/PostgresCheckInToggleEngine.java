@@ -0,0 +1,62 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PostgreSQL implementation: INSERT ... ON CONFLICT DO UPDATE ... WHERE ... RETURNING.
+ * When the WHERE guard rejects the update no row is returned, and the stored row is read back for the error message.
+ * Concurrent swipes for the same member serialize on the conflicting row lock, and the guard is re-checked
+ * against the committed row, so at most one of them closes the session.
+ */
+public class PostgresCheckInToggleEngine implements CheckInToggleEngine {
+
+    private static final String TOGGLE_SQL = """
+            INSERT INTO attendance (user_id, check_in_time, attendance_date)
+            VALUES (?, ?, ?)
+            ON CONFLICT (user_id, attendance_date) DO UPDATE SET
+                check_out_time = EXCLUDED.check_in_time,
+                time_spent_minutes = CAST(FLOOR(EXTRACT(EPOCH FROM (EXCLUDED.check_in_time - attendance.check_in_time)) / 60) AS BIGINT),
+                version = attendance.version + 1
+            WHERE
+                attendance.check_out_time IS NULL
+                AND attendance.check_in_time <= EXCLUDED.check_in_time - make_interval(mins => ?)
+            RETURNING attendance_id, check_in_time, check_out_time, time_spent_minutes
+            """;
+
+    private static final String CURRENT_ROW_SQL = """
+            SELECT attendance_id, check_in_time, check_out_time, time_spent_minutes
+            FROM attendance
+            WHERE user_id = ? AND attendance_date = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresCheckInToggleEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public ToggleResult toggle(Integer userId, LocalDate attendanceDate, LocalDateTime now, int minStayMinutes) {
+        List<ToggleResult> toggled = jdbcTemplate.query(TOGGLE_SQL,
+                (rs, rowNum) -> {
+                    LocalDateTime checkOutTime = rs.getObject("check_out_time", LocalDateTime.class);
+                    return new ToggleResult(checkOutTime == null ? Outcome.CHECKED_IN : Outcome.CHECKED_OUT,
+                            rs.getInt("attendance_id"), rs.getObject("check_in_time", LocalDateTime.class),
+                            checkOutTime, rs.getObject("time_spent_minutes", Long.class));
+                },
+                userId, now, attendanceDate, minStayMinutes);
+        if (!toggled.isEmpty()) {
+            return toggled.get(0);
+        }
+        return jdbcTemplate.queryForObject(CURRENT_ROW_SQL,
+                (rs, rowNum) -> new ToggleResult(Outcome.REJECTED, rs.getInt("attendance_id"),
+                        rs.getObject("check_in_time", LocalDateTime.class),
+                        rs.getObject("check_out_time", LocalDateTime.class),
+                        rs.getObject("time_spent_minutes", Long.class)),
+                userId, attendanceDate);
+    }
+}
@@ -0,0 +1,58 @@
+package com.gym.gymmanagementsystem.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL implementation: a sequence stepping by BLOCK_SIZE. Reserving the block, expanding it to IDs
+ * and dropping IDs already present in users (e.g. from the old random generator) is one statement.
+ * nextval() is never rolled back, so the reservation stands even if the caller's transaction fails.
+ */
+public class PostgresMemberIdBlockSource implements MemberIdBlockSource {
+
+    private static final String CREATE_SEQUENCE_SQL =
+            "CREATE SEQUENCE IF NOT EXISTS member_id_seq MINVALUE 0 START WITH 0 INCREMENT BY " + BLOCK_SIZE;
+
+    private static final String RESERVE_BLOCK_SQL = """
+            WITH block AS (
+                SELECT nextval('member_id_seq') AS first_counter
+            ),
+            candidates AS (
+                SELECT block.first_counter, counter, %d + MOD(%d * counter + %d, %d) AS member_id
+                FROM block, generate_series(block.first_counter, block.first_counter + %d) AS counter
+                WHERE counter < %d
+            )
+            SELECT block.first_counter, c.member_id
+            FROM block
+            LEFT JOIN candidates c
+                ON NOT EXISTS (SELECT 1 FROM users u WHERE u.user_id = c.member_id)
+            ORDER BY c.counter
+            """.formatted(FIRST_ID, MULTIPLIER, OFFSET, ID_SPACE, BLOCK_SIZE - 1, ID_SPACE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresMemberIdBlockSource(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void initialize() {
+        jdbcTemplate.execute(CREATE_SEQUENCE_SQL);
+    }
+
+    @Override
+    public Block reserveBlock() {
+        List<Integer> freeIds = new ArrayList<>();
+        long[] firstCounter = new long[1];
+        jdbcTemplate.query(RESERVE_BLOCK_SQL, rs -> {
+            firstCounter[0] = rs.getLong("first_counter");
+            long memberId = rs.getLong("member_id");
+            if (!rs.wasNull()) {
+                freeIds.add((int) memberId);
+            }
+        });
+        return new Block(firstCounter[0], freeIds);
+    }
+}
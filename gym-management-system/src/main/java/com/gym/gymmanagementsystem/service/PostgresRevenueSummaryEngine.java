@@ -0,0 +1,68 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.model.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * PostgreSQL implementation: INSERT ... ON CONFLICT DO UPDATE adding EXCLUDED to the stored totals.
+ */
+public class PostgresRevenueSummaryEngine implements RevenueSummaryEngine {
+
+    private static final String APPLY_DELTA_SQL = """
+            INSERT INTO daily_revenue_summary
+                (summary_date, payment_method, membership_plan_id, amount_total, due_total, fee_total, payment_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (summary_date, payment_method, membership_plan_id) DO UPDATE SET
+                amount_total = daily_revenue_summary.amount_total + EXCLUDED.amount_total,
+                due_total = daily_revenue_summary.due_total + EXCLUDED.due_total,
+                fee_total = daily_revenue_summary.fee_total + EXCLUDED.fee_total,
+                payment_count = daily_revenue_summary.payment_count + EXCLUDED.payment_count
+            """;
+
+    // SHARE mode waits for in-flight payment writes and holds new ones off until the rebuild commits,
+    // so no delta can be applied to a bucket that is about to be recomputed.
+    private static final String LOCK_PAYMENTS_SQL = "LOCK TABLE payments IN SHARE MODE";
+
+    private static final String CLEAR_SQL = "DELETE FROM daily_revenue_summary";
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO daily_revenue_summary
+                (summary_date, payment_method, membership_plan_id, amount_total, due_total, fee_total, payment_count)
+            SELECT
+                p.payment_date,
+                p.payment_method,
+                COALESCE(p.membership_plan_id, 0),
+                SUM(p.amount),
+                SUM(p.due_amount),
+                COALESCE(SUM(p.total_membership_fee), 0),
+                COUNT(*)
+            FROM
+                payments p
+            GROUP BY
+                p.payment_date,
+                p.payment_method,
+                COALESCE(p.membership_plan_id, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresRevenueSummaryEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyDelta(LocalDate summaryDate, String paymentMethod, int membershipPlanId,
+                           long amount, long dueAmount, long totalMembershipFee, long paymentCount) {
+        jdbcTemplate.update(APPLY_DELTA_SQL, summaryDate, paymentMethod, membershipPlanId,
+                Money.toRupeeDecimal(amount), Money.toRupeeDecimal(dueAmount), Money.toRupeeDecimal(totalMembershipFee), paymentCount);
+    }
+
+    @Override
+    public int rebuild() {
+        jdbcTemplate.execute(LOCK_PAYMENTS_SQL);
+        jdbcTemplate.update(CLEAR_SQL);
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gym.gymmanagementsystem.service;
+
+import java.time.LocalDate;
+
+/**
+ * Database-specific SQL behind RevenueSummaryService on
+ * daily_revenue_summary(summary_date, payment_method, membership_plan_id).
+ */
+public interface RevenueSummaryEngine {
+
+    /** Adds the deltas (money in paise) to one bucket in a single upsert, creating the bucket if it does not exist yet. */
+    void applyDelta(LocalDate summaryDate, String paymentMethod, int membershipPlanId,
+                    long amount, long dueAmount, long totalMembershipFee, long paymentCount);
+
+    /** Replaces every bucket with totals recomputed from 'payments'; must run inside a transaction. */
+    int rebuild();
+}
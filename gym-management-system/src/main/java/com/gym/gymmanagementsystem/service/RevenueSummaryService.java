@@ -0,0 +1,85 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.model.DailyRevenueSummary;
+import com.gym.gymmanagementsystem.model.Payment;
+import com.gym.gymmanagementsystem.repository.DailyRevenueSummaryRepository;
+import com.gym.gymmanagementsystem.repository.DailyRevenueSummaryRepository.RevenueTotalsRow;
+import com.gym.gymmanagementsystem.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains daily_revenue_summary, one row of payment totals per (payment date, method, plan).
+ * PaymentService applies a delta in the same transaction as every payment insert, delete and due change,
+ * so range analytics read the rollup instead of rescanning 'payments'. The dialect-specific upserts live
+ * in the RevenueSummaryEngine for the configured datasource. A full rebuild backfills an empty rollup at
+ * startup and reconciles it nightly with writes made outside the application.
+ */
+@Service
+public class RevenueSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueSummaryService.class);
+
+    @Autowired
+    private RevenueSummaryEngine revenueSummaryEngine;
+    @Autowired
+    private DailyRevenueSummaryRepository dailyRevenueSummaryRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Transactional
+    public void recordPayment(Payment payment) {
+        applyDelta(payment, 1);
+    }
+
+    @Transactional
+    public void removePayment(Payment payment) {
+        applyDelta(payment, -1);
+    }
+
+    /** Records a change to an existing payment's due amount, e.g. after part of it was settled. */
+    @Transactional
+    public void adjustDue(Payment payment, long previousDueAmount) {
+        revenueSummaryEngine.applyDelta(payment.getPaymentDate(), payment.getPaymentMethod(), planKey(payment),
+                0L, payment.getDueAmount() - previousDueAmount, 0L, 0L);
+    }
+
+    public List<RevenueTotalsRow> getTotalsByMethodAndPlan(LocalDate startDate, LocalDate endDate) {
+        return dailyRevenueSummaryRepository.sumByMethodAndPlan(startDate, endDate);
+    }
+
+    @Scheduled(cron = "${payments.revenue-summary.rebuild-cron:0 30 0 * * *}")
+    @Transactional
+    public int rebuild() {
+        int buckets = revenueSummaryEngine.rebuild();
+        logger.info("Daily revenue summary rebuilt: {} buckets.", buckets);
+        return buckets;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (dailyRevenueSummaryRepository.count() == 0 && paymentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void applyDelta(Payment payment, int sign) {
+        long fee = payment.getTotalMembershipFee() != null ? payment.getTotalMembershipFee() : 0L;
+        revenueSummaryEngine.applyDelta(payment.getPaymentDate(), payment.getPaymentMethod(), planKey(payment),
+                sign * payment.getAmount(), sign * payment.getDueAmount(), sign * fee, sign);
+    }
+
+    private static int planKey(Payment payment) {
+        return payment.getMembershipPlanId() != null ? payment.getMembershipPlanId() : DailyRevenueSummary.NO_PLAN;
+    }
+}
@@ -0,0 +1,275 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.gymmanagementsystem.dto.UserDTO;
+import com.gym.gymmanagementsystem.dto.UserImportErrorDTO;
+import com.gym.gymmanagementsystem.dto.UserImportResultDTO;
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import com.gym.gymmanagementsystem.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON member file into the users table.
+ * Rows are parsed one line at a time and inserted with JDBC batches, one transaction per chunk,
+ * so memory use does not grow with the file and a bad chunk does not undo earlier ones.
+ * CSV files need a header row; recognised columns are userId, name, age, gender, contactNumber,
+ * joiningDate (yyyy-MM-dd) and selectedPlanId, matching the UserDTO used by POST /api/users.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (user_id, name, age, gender, contact_number, membership_status, joining_date, " +
+            "current_plan_id, current_plan_start_date, current_plan_end_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXISTING_USER_IDS_SQL = "SELECT user_id FROM users WHERE user_id IN (:ids)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MembershipPlanCache membershipPlanCache;
+    @Autowired
+    private MemberIdAllocator memberIdAllocator;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private record ImportRow(long lineNumber, User user, boolean explicitId) {
+    }
+
+    public UserImportResultDTO importUsers(InputStream input, DataFileFormat format) throws IOException {
+        // One plan snapshot for the whole file
+        Map<Integer, MembershipPlan> plansById = membershipPlanCache.getAllPlans().stream()
+                .collect(Collectors.toMap(MembershipPlan::getPlanId, Function.identity()));
+        List<UserImportErrorDTO> errors = new ArrayList<>();
+        Set<Integer> explicitIdsSeen = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        int imported = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == DataFileFormat.CSV && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+                try {
+                    UserDTO userDTO = format == DataFileFormat.CSV ? csvToDto(header, parseCsvLine(line)) : objectMapper.readValue(line, UserDTO.class);
+                    String violations = validator.validate(userDTO).stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "));
+                    if (!violations.isEmpty()) {
+                        throw new IllegalArgumentException(violations);
+                    }
+                    boolean explicitId = userDTO.getUserId() != null;
+                    if (explicitId && !explicitIdsSeen.add(userDTO.getUserId())) {
+                        throw new IllegalArgumentException("Duplicate User ID in file: " + userDTO.getUserId());
+                    }
+                    chunk.add(new ImportRow(lineNumber, toUser(userDTO, plansById), explicitId));
+                } catch (JsonProcessingException e) {
+                    errors.add(new UserImportErrorDTO(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+                } catch (RuntimeException e) {
+                    errors.add(new UserImportErrorDTO(lineNumber, e.getMessage()));
+                }
+                if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                    imported += insertChunk(chunk, errors);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += insertChunk(chunk, errors);
+        }
+        logger.info("Member import finished: {} imported, {} failed.", imported, errors.size());
+        return new UserImportResultDTO(imported, errors.size(), errors);
+    }
+
+    private User toUser(UserDTO userDTO, Map<Integer, MembershipPlan> plansById) {
+        User user = new User();
+        user.setUserId(userDTO.getUserId());
+        user.setName(userDTO.getName());
+        user.setAge(userDTO.getAge());
+        user.setGender(userDTO.getGender());
+        user.setContactNumber(userDTO.getContactNumber());
+        user.setJoiningDate(userDTO.getJoiningDate());
+        if (userDTO.getSelectedPlanId() != null) {
+            MembershipPlan plan = plansById.get(userDTO.getSelectedPlanId());
+            if (plan == null) {
+                throw new IllegalArgumentException("Membership Plan not found with id: " + userDTO.getSelectedPlanId());
+            }
+            user.setCurrentPlanId(plan.getPlanId());
+            user.setCurrentPlanStartDate(user.getJoiningDate());
+            user.setCurrentPlanEndDate(user.getJoiningDate().plusMonths(plan.getDurationMonths()));
+        }
+        return userService.deriveAndSetUserStatus(user);
+    }
+
+    private int insertChunk(List<ImportRow> chunk, List<UserImportErrorDTO> errors) {
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        Map<Integer, ImportRow> explicitRows = new HashMap<>();
+        for (ImportRow row : chunk) {
+            if (row.explicitId()) {
+                explicitRows.put(row.user().getUserId(), row);
+            }
+        }
+        // Explicit IDs that already exist are reported rather than overwriting another member
+        Set<Integer> taken = explicitRows.isEmpty() ? Set.of() : new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList(EXISTING_USER_IDS_SQL, new MapSqlParameterSource("ids", explicitRows.keySet()), Integer.class));
+        for (ImportRow row : chunk) {
+            if (row.explicitId() && taken.contains(row.user().getUserId())) {
+                errors.add(new UserImportErrorDTO(row.lineNumber(), "User ID already exists: " + row.user().getUserId()));
+                continue;
+            }
+            if (!row.explicitId()) {
+                row.user().setUserId(memberIdAllocator.nextId());
+            }
+            rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Integer> insertedIds = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (ps, row) -> bindUser(ps, row.user())));
+            rows.forEach(row -> insertedIds.add(row.user().getUserId()));
+        } catch (DataAccessException batchFailure) {
+            // One bad row fails the whole batch; retry row by row so only the offending rows are reported
+            logger.warn("Member import batch failed, retrying {} rows individually: {}", rows.size(), batchFailure.getMessage());
+            for (ImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.update(INSERT_USER_SQL, ps -> bindUser(ps, row.user())));
+                    insertedIds.add(row.user().getUserId());
+                } catch (DataAccessException e) {
+                    errors.add(new UserImportErrorDTO(row.lineNumber(), e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+        if (!insertedIds.isEmpty()) {
+            eventPublisher.publishEvent(new MemberChangedEvent(insertedIds));
+        }
+        return insertedIds.size();
+    }
+
+    private void bindUser(PreparedStatement ps, User user) throws SQLException {
+        ps.setInt(1, user.getUserId());
+        ps.setString(2, user.getName());
+        ps.setObject(3, user.getAge(), Types.INTEGER);
+        ps.setString(4, user.getGender());
+        ps.setString(5, user.getContactNumber());
+        ps.setString(6, user.getMembershipStatus());
+        ps.setObject(7, user.getJoiningDate());
+        ps.setObject(8, user.getCurrentPlanId(), Types.INTEGER);
+        ps.setObject(9, user.getCurrentPlanStartDate(), Types.DATE);
+        ps.setObject(10, user.getCurrentPlanEndDate(), Types.DATE);
+    }
+
+    private UserDTO csvToDto(String[] header, List<String> values) {
+        UserDTO userDTO = new UserDTO();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                case "userid" -> userDTO.setUserId(parseInteger(header[i], value));
+                case "name" -> userDTO.setName(value);
+                case "age" -> userDTO.setAge(parseInteger(header[i], value));
+                case "gender" -> userDTO.setGender(value);
+                case "contactnumber" -> userDTO.setContactNumber(value);
+                case "joiningdate" -> userDTO.setJoiningDate(LocalDate.parse(value));
+                case "selectedplanid" -> userDTO.setSelectedPlanId(parseInteger(header[i], value));
+                default -> { } // Unknown columns are ignored
+            }
+        }
+        return userDTO;
+    }
+
+    private Integer parseInteger(String column, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column.trim() + ": " + value);
+        }
+    }
+
+    // Splits one CSV record; supports double-quoted fields with "" escapes, but not line breaks inside quotes
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
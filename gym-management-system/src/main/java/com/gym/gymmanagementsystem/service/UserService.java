@@ -3,17 +3,16 @@ package com.gym.gymmanagementsystem.service;
 import com.gym.gymmanagementsystem.model.User;
 import com.gym.gymmanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Ensure this import is present
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.stream.Collectors;
 
 import com.gym.gymmanagementsystem.dto.UserDTO;
 import com.gym.gymmanagementsystem.model.MembershipPlan;
-import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
 import com.gym.gymmanagementsystem.dto.UserResponseDTO;
 
 import org.springframework.data.domain.Page;
@@ -30,28 +29,19 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private MembershipPlanRepository membershipPlanRepository;
+    private MembershipPlanCache membershipPlanCache;
+    @Autowired
+    private MembershipPlanResolver membershipPlanResolver;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    private final Random random = new Random();
-    private Integer generateUniqueUserId() {
-        Integer newUserId;
-        int maxAttempts = 100;
-        int attempts = 0;
-        do {
-            random.setSeed(System.nanoTime());
-            newUserId = random.nextInt(900000) + 100000;
-            attempts++;
-            if (attempts > maxAttempts) {
-                throw new RuntimeException("Failed to generate a unique 6-digit User ID after " + maxAttempts + " attempts.");
-            }
-        } while (userRepository.existsById(newUserId));
-        return newUserId;
-    }
+    @Autowired
+    private MemberIdAllocator memberIdAllocator;
 
     @Transactional // Ensure transactional for changes to be flushed
     public User addUser(UserDTO userDTO) {
         User user = new User();
-        user.setUserId(userDTO.getUserId() == null ? generateUniqueUserId() : userDTO.getUserId());
+        user.setUserId(userDTO.getUserId() == null ? memberIdAllocator.nextId() : userDTO.getUserId());
         user.setName(userDTO.getName());
         user.setAge(userDTO.getAge());
         user.setGender(userDTO.getGender());
@@ -59,7 +49,7 @@ public class UserService {
         user.setJoiningDate(userDTO.getJoiningDate() != null ? userDTO.getJoiningDate() : LocalDate.now());
         
         if (userDTO.getSelectedPlanId() != null) {
-            MembershipPlan plan = membershipPlanRepository.findById(userDTO.getSelectedPlanId())
+            MembershipPlan plan = membershipPlanCache.getPlan(userDTO.getSelectedPlanId())
                 .orElseThrow(() -> new RuntimeException("Membership Plan not found with id: " + userDTO.getSelectedPlanId()));
             user.setCurrentPlanId(plan.getPlanId());
             user.setCurrentPlanStartDate(user.getJoiningDate());
@@ -70,15 +60,13 @@ public class UserService {
             user.setCurrentPlanEndDate(null);
         }
 
-        // First save to get a managed entity
-        User savedUser = userRepository.save(user); 
-        
-        // Derive and set status (modifies the managed 'savedUser' object)
-        deriveAndSetUserStatus(savedUser); // Call the derivation on the managed entity
-
-        // Explicitly save the modified managed entity again to ensure status is flushed
-        // Even if @Transactional should theoretically handle it, an explicit save ensures flush.
-        return userRepository.save(savedUser); // SECOND SAVE, crucial for status persistence
+        // Status is derived before the save, and the new-entity flag makes save() a plain persist:
+        // a create is one INSERT (no merge SELECT, no follow-up UPDATE for the status)
+        deriveAndSetUserStatus(user);
+        user.setNewEntity(true);
+        User result = userRepository.save(user);
+        eventPublisher.publishEvent(MemberChangedEvent.of(result.getUserId()));
+        return result;
     }
 
     public User deriveAndSetUserStatus(User user) {
@@ -91,101 +79,66 @@ public class UserService {
         } else {
             user.setMembershipStatus("Inactive");
         }
-        logger.info("Derived status for user " + user.getUserId() + " (" + user.getName() + "): " + user.getMembershipStatus() + " (Plan End Date: " + user.getCurrentPlanEndDate() + ")");
+        // DEBUG with placeholders: the import derives the status of every row it reads
+        logger.debug("Derived status for user {} ({}): {} (Plan End Date: {})",
+                user.getUserId(), user.getName(), user.getMembershipStatus(), user.getCurrentPlanEndDate());
         return user; // Return the modified entity (which is a managed entity)
     }
 
 
-    public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
-        Page<User> usersPage = userRepository.findAll(pageable);
-        return usersPage.map(user -> {
-            UserResponseDTO dto = new UserResponseDTO();
-            dto.setUserId(user.getUserId());
-            dto.setName(user.getName());
-            dto.setAge(user.getAge());
-            dto.setGender(user.getGender());
-            dto.setContactNumber(user.getContactNumber());
-            dto.setJoiningDate(user.getJoiningDate());
-
-            if (user.getCurrentPlanId() != null && user.getCurrentPlanStartDate() != null && user.getCurrentPlanEndDate() != null) {
-                MembershipPlan plan = membershipPlanRepository.findById(user.getCurrentPlanId()).orElse(null);
-                if (plan != null) {
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName(plan.getPlanName());
-                    dto.setCurrentPlanStartDate(user.getCurrentPlanStartDate());
-                    dto.setCurrentPlanEndDate(user.getCurrentPlanEndDate());
-
-                    boolean isActive = user.getCurrentPlanEndDate().isAfter(LocalDate.now());
-                    dto.setCurrentPlanIsActive(isActive);
-
-                    if (isActive) {
-                        dto.setMembershipStatus("Active");
-                    } else {
-                        dto.setMembershipStatus("Expired");
-                    }
-                } else {
-                    dto.setMembershipStatus("Inactive");
-                    dto.setCurrentPlanIsActive(false);
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName("Unknown Plan");
-                    dto.setCurrentPlanStartDate(null);
-                    dto.setCurrentPlanEndDate(null);
-                }
+    // Helper to convert User entity to UserResponseDTO; plans must be pre-resolved for the whole page
+    private UserResponseDTO convertToResponseDto(User user, Map<Integer, MembershipPlan> plansById) {
+        UserResponseDTO dto = new UserResponseDTO();
+        dto.setUserId(user.getUserId());
+        dto.setName(user.getName());
+        dto.setAge(user.getAge());
+        dto.setGender(user.getGender());
+        dto.setContactNumber(user.getContactNumber());
+        dto.setJoiningDate(user.getJoiningDate());
+
+        if (user.getCurrentPlanId() != null && user.getCurrentPlanStartDate() != null && user.getCurrentPlanEndDate() != null) {
+            MembershipPlan plan = plansById.get(user.getCurrentPlanId());
+            if (plan != null) {
+                dto.setCurrentPlanId(user.getCurrentPlanId());
+                dto.setCurrentPlanName(plan.getPlanName());
+                dto.setCurrentPlanStartDate(user.getCurrentPlanStartDate());
+                dto.setCurrentPlanEndDate(user.getCurrentPlanEndDate());
+
+                // The stored status is kept current by writes and the nightly MembershipExpirySweeper
+                dto.setMembershipStatus(user.getMembershipStatus());
+                dto.setCurrentPlanIsActive("Active".equalsIgnoreCase(user.getMembershipStatus()));
             } else {
                 dto.setMembershipStatus("Inactive");
                 dto.setCurrentPlanIsActive(false);
-                dto.setCurrentPlanId(null);
-                dto.setCurrentPlanName(null);
+                dto.setCurrentPlanId(user.getCurrentPlanId());
+                dto.setCurrentPlanName("Unknown Plan");
                 dto.setCurrentPlanStartDate(null);
                 dto.setCurrentPlanEndDate(null);
             }
-            return dto;
-        });
+        } else {
+            dto.setMembershipStatus("Inactive");
+            dto.setCurrentPlanIsActive(false);
+            dto.setCurrentPlanId(null);
+            dto.setCurrentPlanName(null);
+            dto.setCurrentPlanStartDate(null);
+            dto.setCurrentPlanEndDate(null);
+        }
+        return dto;
     }
 
-    public Optional<UserResponseDTO> getUserById(Integer userId) {
-        return userRepository.findById(userId).map(user -> {
-            UserResponseDTO dto = new UserResponseDTO();
-            dto.setUserId(user.getUserId());
-            dto.setName(user.getName());
-            dto.setAge(user.getAge());
-            dto.setGender(user.getGender());
-            dto.setContactNumber(user.getContactNumber());
-            dto.setJoiningDate(user.getJoiningDate());
+    private Page<UserResponseDTO> convertPage(Page<User> usersPage) {
+        // One findAllById for every plan referenced on the page instead of one findById per user
+        Map<Integer, MembershipPlan> plansById = membershipPlanResolver.resolvePlansFor(usersPage.getContent(), User::getCurrentPlanId);
+        return usersPage.map(user -> convertToResponseDto(user, plansById));
+    }
 
-            if (user.getCurrentPlanId() != null && user.getCurrentPlanStartDate() != null && user.getCurrentPlanEndDate() != null) {
-                MembershipPlan plan = membershipPlanRepository.findById(user.getCurrentPlanId()).orElse(null);
-                if (plan != null) {
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName(plan.getPlanName());
-                    dto.setCurrentPlanStartDate(user.getCurrentPlanStartDate());
-                    dto.setCurrentPlanEndDate(user.getCurrentPlanEndDate());
-                    boolean isActive = user.getCurrentPlanEndDate().isAfter(LocalDate.now());
-                    dto.setCurrentPlanIsActive(isActive);
+    public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
+        return convertPage(userRepository.findAll(pageable));
+    }
 
-                    if (isActive) {
-                        dto.setMembershipStatus("Active");
-                    } else {
-                        dto.setMembershipStatus("Expired");
-                    }
-                } else {
-                    dto.setMembershipStatus("Inactive");
-                    dto.setCurrentPlanIsActive(false);
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName("Unknown Plan");
-                    dto.setCurrentPlanStartDate(null);
-                    dto.setCurrentPlanEndDate(null);
-                }
-            } else {
-                dto.setMembershipStatus("Inactive");
-                dto.setCurrentPlanIsActive(false);
-                dto.setCurrentPlanId(null);
-                dto.setCurrentPlanName(null);
-                dto.setCurrentPlanStartDate(null);
-                dto.setCurrentPlanEndDate(null);
-            }
-            return dto;
-        });
+    public Optional<UserResponseDTO> getUserById(Integer userId) {
+        return userRepository.findById(userId).map(user ->
+                convertToResponseDto(user, membershipPlanResolver.resolvePlans(Collections.singletonList(user.getCurrentPlanId()))));
     }
 
     // D:\Gym-Project\Project\gym-management-system\src\main\java\com\gym\gymmanagementsystem\service\UserService.java (Updated Excerpt)
@@ -214,7 +167,7 @@ public class UserService {
             
             } else {
                 // Scenario A: Assigning a *NEW* plan (different ID) or assigning a plan to an inactive/expired user.
-                MembershipPlan newPlan = membershipPlanRepository.findById(userDTO.getSelectedPlanId())
+                MembershipPlan newPlan = membershipPlanCache.getPlan(userDTO.getSelectedPlanId())
                     .orElseThrow(() -> new RuntimeException("Membership Plan not found with id: " + userDTO.getSelectedPlanId()));
                 
                 boolean hasCurrentlyActiveStoredPlan = (user.getCurrentPlanStartDate() != null && !user.getCurrentPlanStartDate().isAfter(LocalDate.now())) &&
@@ -222,7 +175,7 @@ public class UserService {
                 
                 // If user has an active, non-matching plan, throw error (to force removal first)
                 if (hasCurrentlyActiveStoredPlan) {
-                    String currentPlanName = membershipPlanRepository.findById(user.getCurrentPlanId()).map(MembershipPlan::getPlanName).orElse("Unknown Plan");
+                    String currentPlanName = membershipPlanCache.getPlan(user.getCurrentPlanId()).map(MembershipPlan::getPlanName).orElse("Unknown Plan");
                     throw new RuntimeException("User already has an active membership plan ('" + currentPlanName + "'). Please remove the current plan before assigning a new one.");
                 }
 
@@ -239,13 +192,16 @@ public class UserService {
             user.setCurrentPlanEndDate(null);
         }
 
-        // Derive and set status, then save again
-        deriveAndSetUserStatus(user); // Call the derivation on the managed entity
-        return userRepository.save(user); // SECOND SAVE, crucial for status persistence
+        // Derive the status on the managed entity; the flush then writes everything in one UPDATE
+        deriveAndSetUserStatus(user);
+        User result = userRepository.save(user);
+        eventPublisher.publishEvent(MemberChangedEvent.of(userId));
+        return result;
     }
 
     public void deleteUser(Integer userId) {
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(MemberChangedEvent.of(userId));
     }
 
     public Page<UserResponseDTO> searchUsers(String query, Pageable pageable) {
@@ -256,48 +212,6 @@ public class UserService {
             usersPage = userRepository.findBySearchQuery(query.trim(), pageable);
         }
 
-        return usersPage.map(user -> {
-            UserResponseDTO dto = new UserResponseDTO();
-            dto.setUserId(user.getUserId());
-            dto.setName(user.getName());
-            dto.setAge(user.getAge());
-            dto.setGender(user.getGender());
-            dto.setContactNumber(user.getContactNumber());
-            dto.setJoiningDate(user.getJoiningDate());
-
-            if (user.getCurrentPlanId() != null && user.getCurrentPlanStartDate() != null && user.getCurrentPlanEndDate() != null) {
-                MembershipPlan plan = membershipPlanRepository.findById(user.getCurrentPlanId()).orElse(null);
-                if (plan != null) {
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName(plan.getPlanName());
-                    dto.setCurrentPlanStartDate(user.getCurrentPlanStartDate());
-                    dto.setCurrentPlanEndDate(user.getCurrentPlanEndDate());
-
-                    boolean isActive = user.getCurrentPlanEndDate().isAfter(LocalDate.now());
-                    dto.setCurrentPlanIsActive(isActive);
-
-                    if (isActive) {
-                        dto.setMembershipStatus("Active");
-                    } else {
-                        dto.setMembershipStatus("Expired");
-                    }
-                } else {
-                    dto.setMembershipStatus("Inactive");
-                    dto.setCurrentPlanIsActive(false);
-                    dto.setCurrentPlanId(user.getCurrentPlanId());
-                    dto.setCurrentPlanName("Unknown Plan");
-                    dto.setCurrentPlanStartDate(null);
-                    dto.setCurrentPlanEndDate(null);
-                }
-            } else {
-                dto.setMembershipStatus("Inactive");
-                dto.setCurrentPlanIsActive(false);
-                dto.setCurrentPlanId(null);
-                dto.setCurrentPlanName(null);
-                dto.setCurrentPlanStartDate(null);
-                dto.setCurrentPlanEndDate(null);
-            }
-            return dto;
-        });
+        return convertPage(usersPage);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.gym.gymmanagementsystem;
+
+import com.gym.gymmanagementsystem.dto.UserDTO;
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import com.gym.gymmanagementsystem.repository.MembershipPlanRepository;
+import com.gym.gymmanagementsystem.service.MembershipPlanCache;
+import com.gym.gymmanagementsystem.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plans and members for the integration tests. Both share one database per dialect across test classes,
+ * so every plan name and contact number is unique.
+ */
+@Component
+public class TestFixtures {
+
+    @Autowired
+    private MembershipPlanRepository membershipPlanRepository;
+    @Autowired
+    private MembershipPlanCache membershipPlanCache;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Saved and visible to MembershipPlanCache straight away
+    public MembershipPlan createPlan(double price, int durationMonths) {
+        MembershipPlan plan = new MembershipPlan();
+        plan.setPlanName("Plan " + UUID.randomUUID());
+        plan.setPrice(price);
+        plan.setDurationMonths(durationMonths);
+        MembershipPlan saved = membershipPlanRepository.save(plan);
+        membershipPlanCache.refresh();
+        return saved;
+    }
+
+    // An Inactive member without a plan
+    public Integer createMember(String name) {
+        return createMember(name, null);
+    }
+
+    // Joins today, so a plan makes the member Active
+    public Integer createMember(String name, Integer planId) {
+        return userService.addUser(memberDto(name, planId)).getUserId();
+    }
+
+    // Written straight to the table, so no MemberChangedEvent is published (like a write from another instance)
+    public Integer insertMemberDirectly(String name, String contactNumber) {
+        int userId = 800_000_000 + ThreadLocalRandom.current().nextInt(100_000_000);
+        jdbcTemplate.update("INSERT INTO users (user_id, name, age, gender, contact_number, membership_status, joining_date) "
+                + "VALUES (?, ?, 30, 'Male', ?, 'Inactive', ?)", userId, name, contactNumber, LocalDate.now());
+        return userId;
+    }
+
+    public static UserDTO memberDto(String name, Integer planId) {
+        UserDTO dto = new UserDTO();
+        dto.setName(name);
+        dto.setAge(30);
+        dto.setGender("Male");
+        dto.setContactNumber(randomContactNumber());
+        dto.setJoiningDate(LocalDate.now());
+        dto.setSelectedPlanId(planId);
+        return dto;
+    }
+
+    public static String randomContactNumber() {
+        return "9" + randomDigits(9);
+    }
+
+    public static String randomDigits(int count) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            digits.append(ThreadLocalRandom.current().nextInt(10));
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.gym.gymmanagementsystem.config;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttendanceSessionKeyInitializerTest extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private AttendanceSessionKeyInitializer attendanceSessionKeyInitializer;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mergesSameDaySessionsAndRestoresTheKey() {
+        int member = testFixtures.createMember("Duplicate Sessions");
+        int other = testFixtures.createMember("Single Session");
+        // What a database written by the old check-in code can hold: the key could never be created on it
+        jdbcTemplate.execute("ALTER TABLE attendance DROP CONSTRAINT uk_attendance_user_date");
+        insert(member, DAY.atTime(8, 0), DAY.atTime(8, 30), 30L);
+        insert(member, DAY.atTime(12, 0), null, null);
+        insert(member, DAY.atTime(18, 0), DAY.atTime(19, 0), 60L);
+        insert(other, DAY.atTime(9, 0), DAY.atTime(10, 0), 60L);
+
+        attendanceSessionKeyInitializer.ensureSessionKey();
+
+        assertThat(sessions(member)).containsExactly(DAY.atTime(8, 0) + " " + DAY.atTime(19, 0) + " 660");
+        assertThat(sessions(other)).containsExactly(DAY.atTime(9, 0) + " " + DAY.atTime(10, 0) + " 60");
+        assertThatThrownBy(() -> insert(member, DAY.atTime(20, 0), null, null)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void leavesAnExistingKeyAlone() {
+        int member = testFixtures.createMember("Keyed Member");
+        insert(member, DAY.atTime(7, 0), DAY.atTime(8, 0), 60L);
+
+        attendanceSessionKeyInitializer.ensureSessionKey();
+
+        assertThat(sessions(member)).hasSize(1);
+    }
+
+    private void insert(int userId, LocalDateTime checkIn, LocalDateTime checkOut, Long minutes) {
+        jdbcTemplate.update("INSERT INTO attendance (user_id, check_in_time, check_out_time, time_spent_minutes, attendance_date) "
+                + "VALUES (?, ?, ?, ?, ?)", userId, checkIn, checkOut, minutes, checkIn.toLocalDate());
+    }
+
+    private List<String> sessions(int userId) {
+        return jdbcTemplate.query("SELECT check_in_time, check_out_time, time_spent_minutes FROM attendance "
+                        + "WHERE user_id = ? AND attendance_date = ?",
+                (rs, rowNum) -> rs.getObject("check_in_time", LocalDateTime.class) + " "
+                        + rs.getObject("check_out_time", LocalDateTime.class) + " " + rs.getObject("time_spent_minutes", Long.class),
+                userId, DAY);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.AttendanceResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A desk check-out must commit without waiting on the shared summary_watermarks row, which every check-out bumps;
+ * the bump follows in its own transaction once the lock is free.
+ */
+class AttendanceChangeCountTest extends PostgresIntegrationTest {
+
+    private static final String CHANGE_COUNT_SQL =
+            "SELECT change_count FROM summary_watermarks WHERE watermark_name = 'attendance_summary'";
+
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void checkOutCommitsWhileTheWatermarkRowIsLocked() throws Exception {
+        Integer userId = testFixtures.createMember("Watermark Member", testFixtures.createPlan(1000.0, 1).getPlanId());
+        LocalDateTime checkIn = LocalDateTime.now().minusMinutes(30);
+        jdbcTemplate.update("INSERT INTO attendance (user_id, check_in_time, attendance_date) VALUES (?, ?, ?)",
+                userId, checkIn, LocalDate.now());
+        long changeCountBefore = jdbcTemplate.queryForObject(CHANGE_COUNT_SQL, Long.class);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Stands in for another check-out (or the summary run) still holding the row
+            Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject(CHANGE_COUNT_SQL + " FOR UPDATE", Long.class);
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<AttendanceResponseDTO> checkOut = executor.submit(() -> attendanceService.recordOrUpdateAttendance(userId));
+            assertThat(awaitCommittedCheckOut(userId)).as("check-out committed while the watermark row is locked").isTrue();
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            assertThat(checkOut.get(10, TimeUnit.SECONDS).getCheckOutTime()).isNotNull();
+            assertThat(jdbcTemplate.queryForObject(CHANGE_COUNT_SQL, Long.class)).isEqualTo(changeCountBefore + 1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private boolean awaitCommittedCheckOut(Integer userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer closed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance WHERE user_id = ? "
+                    + "AND check_out_time IS NOT NULL", Integer.class, userId);
+            if (closed > 0) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.TestFixtures;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fixture shared by the PostgreSQL and MySQL summary engine tests, so both dialects are held to the same summaries.
+ * Sessions are dated in 2036/2037: after anything other tests check out, so the incremental watermark always
+ * picks them up, yet inside the MySQL TIMESTAMP range.
+ */
+final class AttendanceSummaryScenario {
+
+    // The summary tables are not JPA entities; these match the unique keys the engines upsert against
+    private static final List<String> SUMMARY_TABLES = List.of(
+            "CREATE TABLE IF NOT EXISTS daily_attendance (user_id INT NOT NULL, check_in TIMESTAMP NULL, "
+                    + "check_out TIMESTAMP NULL, time_spent_minutes BIGINT, attendance_date DATE NOT NULL, "
+                    + "PRIMARY KEY (user_id, attendance_date))",
+            "CREATE TABLE IF NOT EXISTS monthly_attendance_summary (user_id INT NOT NULL, year INT NOT NULL, "
+                    + "month INT NOT NULL, total_present_days BIGINT, total_minutes_spent BIGINT, "
+                    + "PRIMARY KEY (user_id, year, month))",
+            "CREATE TABLE IF NOT EXISTS yearly_attendance_summary (user_id INT NOT NULL, year INT NOT NULL, "
+                    + "total_present_days BIGINT, total_minutes_spent BIGINT, PRIMARY KEY (user_id, year))");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TestFixtures testFixtures;
+    private final AttendanceSummaryService attendanceSummaryService;
+
+    AttendanceSummaryScenario(JdbcTemplate jdbcTemplate, TestFixtures testFixtures, AttendanceSummaryService attendanceSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.testFixtures = testFixtures;
+        this.attendanceSummaryService = attendanceSummaryService;
+    }
+
+    void run() {
+        SUMMARY_TABLES.forEach(jdbcTemplate::execute);
+        int first = testFixtures.createMember("Summary First");
+        int second = testFixtures.createMember("Summary Second");
+
+        session(first, LocalDateTime.of(2036, 12, 30, 10, 0), 60);
+        session(first, LocalDateTime.of(2037, 1, 5, 9, 0), 90);
+        session(first, LocalDateTime.of(2037, 1, 6, 7, 0), 45);
+        session(second, LocalDateTime.of(2037, 1, 5, 18, 0), 60);
+        // Still open, so it is not summarized
+        jdbcTemplate.update("INSERT INTO attendance (user_id, check_in_time, attendance_date) VALUES (?, ?, ?)",
+                second, LocalDateTime.of(2037, 1, 7, 8, 0), LocalDate.of(2037, 1, 7));
+
+        attendanceSummaryService.generateAttendanceSummaries();
+
+        assertThat(monthly(first, second)).containsExactly(
+                first + " 2036-12 1 60", first + " 2037-1 2 135", second + " 2037-1 1 60");
+        assertThat(yearly(first, second)).containsExactly(
+                first + " 2036 1 60", first + " 2037 2 135", second + " 2037 1 60");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_attendance WHERE user_id IN (?, ?)",
+                Integer.class, first, second)).isEqualTo(4);
+
+        // A later run only recomputes the buckets touched since the watermark, and leaves the others as they were
+        session(first, LocalDateTime.of(2037, 1, 8, 6, 0), 30);
+        attendanceSummaryService.generateAttendanceSummaries();
+
+        assertThat(monthly(first, second)).containsExactly(
+                first + " 2036-12 1 60", first + " 2037-1 3 165", second + " 2037-1 1 60");
+        assertThat(yearly(first, second)).containsExactly(
+                first + " 2036 1 60", first + " 2037 3 165", second + " 2037 1 60");
+    }
+
+    private void session(int userId, LocalDateTime checkIn, long minutes) {
+        jdbcTemplate.update("INSERT INTO attendance (user_id, check_in_time, check_out_time, time_spent_minutes, attendance_date) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                userId, checkIn, checkIn.plusMinutes(minutes), minutes, checkIn.toLocalDate());
+    }
+
+    private List<String> monthly(int first, int second) {
+        return jdbcTemplate.query("SELECT user_id, year, month, total_present_days, total_minutes_spent "
+                        + "FROM monthly_attendance_summary WHERE user_id IN (?, ?) ORDER BY user_id = ?, year, month",
+                (rs, rowNum) -> rs.getInt("user_id") + " " + rs.getInt("year") + "-" + rs.getInt("month") + " "
+                        + rs.getLong("total_present_days") + " " + rs.getLong("total_minutes_spent"),
+                first, second, second);
+    }
+
+    private List<String> yearly(int first, int second) {
+        return jdbcTemplate.query("SELECT user_id, year, total_present_days, total_minutes_spent "
+                        + "FROM yearly_attendance_summary WHERE user_id IN (?, ?) ORDER BY user_id = ?, year",
+                (rs, rowNum) -> rs.getInt("user_id") + " " + rs.getInt("year") + " "
+                        + rs.getLong("total_present_days") + " " + rs.getLong("total_minutes_spent"),
+                first, second, second);
+    }
+}
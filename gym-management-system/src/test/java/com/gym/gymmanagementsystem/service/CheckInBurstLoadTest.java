@@ -0,0 +1,103 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Morning-peak burst against /api/attendance/record's service method: every member swipes several times at once
+ * from many desks. Reports p50/p99 latency and fails if p99 exceeds checkin.load-test.max-p99-ms (default 1000).
+ */
+class CheckInBurstLoadTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInBurstLoadTest.class);
+
+    private static final int MEMBERS = 100;
+    private static final int SWIPES_PER_MEMBER = 4;
+    private static final int DESKS = 16;
+
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void burstOfSwipesStaysWithinLatencyBudget() throws Exception {
+        List<Integer> members = createActiveMembers();
+        List<Callable<Long>> swipes = new ArrayList<>();
+        for (int round = 0; round < SWIPES_PER_MEMBER; round++) {
+            for (Integer userId : members) {
+                swipes.add(() -> timedSwipe(userId));
+            }
+        }
+        Collections.shuffle(swipes);
+
+        ExecutorService desks = Executors.newFixedThreadPool(DESKS);
+        List<Long> latenciesNanos = new ArrayList<>();
+        try {
+            for (Future<Long> latency : desks.invokeAll(swipes)) {
+                latenciesNanos.add(latency.get());
+            }
+        } finally {
+            desks.shutdown();
+            desks.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        Collections.sort(latenciesNanos);
+        long p50Ms = TimeUnit.NANOSECONDS.toMillis(percentile(latenciesNanos, 0.50));
+        long p99Ms = TimeUnit.NANOSECONDS.toMillis(percentile(latenciesNanos, 0.99));
+        logger.info("Check-in burst: {} swipes from {} desks, p50 {} ms, p99 {} ms, max {} ms.", latenciesNanos.size(), DESKS,
+                p50Ms, p99Ms, TimeUnit.NANOSECONDS.toMillis(latenciesNanos.get(latenciesNanos.size() - 1)));
+
+        // Repeated swipes inside the minimum stay are refused, so every member ends with exactly one open session
+        for (Integer userId : members) {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance WHERE user_id = ? AND attendance_date = ? "
+                    + "AND check_out_time IS NULL", Integer.class, userId, LocalDate.now())).isEqualTo(1);
+        }
+        assertThat(p99Ms).isLessThanOrEqualTo(Long.getLong("checkin.load-test.max-p99-ms", 1000L));
+    }
+
+    private long timedSwipe(Integer userId) {
+        long started = System.nanoTime();
+        try {
+            attendanceService.recordOrUpdateAttendance(userId);
+        } catch (RuntimeException e) {
+            // Swipes after the first are refused inside the minimum stay ("Check-out not allowed ...") or, when their
+            // clock read predates the winning check-in, as "Check-out time cannot be before check-in time."
+            assertThat(e.getMessage()).startsWith("Check-out");
+        }
+        return System.nanoTime() - started;
+    }
+
+    private List<Integer> createActiveMembers() {
+        Integer planId = testFixtures.createPlan(1500.0, 3).getPlanId();
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(testFixtures.createMember("Swipe Member " + i, planId));
+        }
+        return members;
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
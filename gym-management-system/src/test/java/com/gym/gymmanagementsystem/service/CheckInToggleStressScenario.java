@@ -0,0 +1,184 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.AttendanceResponseDTO;
+import com.gym.gymmanagementsystem.dto.CheckOutAllResultDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Thousands of concurrent toggles through the real CheckInToggleEngine, racing with checkOutAllUsers.
+ * Shared by the PostgreSQL and MySQL engine tests. Half the members start the burst with an open session from
+ * midnight (so the bulk check-out may close it), the other half have none yet.
+ * Afterwards every member must have exactly one session today, and that session was closed at most once.
+ * A second burst goes through AttendanceService with a cold eligibility cache, so each swipe's transaction has
+ * already read the database before the toggle runs, as a real desk swipe does.
+ */
+final class CheckInToggleStressScenario {
+
+    private static final int MEMBERS = 50;
+    private static final int TOGGLES_PER_MEMBER = 40;
+    private static final int BULK_CHECK_OUTS = 5;
+    private static final int THREADS = 16;
+    private static final int SWIPES_PER_ACTIVE_MEMBER = 8;
+
+    private final CheckInToggleEngine checkInToggleEngine;
+    private final AttendanceService attendanceService;
+    private final MemberEligibilityCache memberEligibilityCache;
+    private final TestFixtures testFixtures;
+    private final JdbcTemplate jdbcTemplate;
+
+    CheckInToggleStressScenario(CheckInToggleEngine checkInToggleEngine, AttendanceService attendanceService,
+                                MemberEligibilityCache memberEligibilityCache, TestFixtures testFixtures,
+                                JdbcTemplate jdbcTemplate) {
+        this.checkInToggleEngine = checkInToggleEngine;
+        this.attendanceService = attendanceService;
+        this.memberEligibilityCache = memberEligibilityCache;
+        this.testFixtures = testFixtures;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void run() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(testFixtures.createMember("Stress Member " + i));
+        }
+        List<Integer> checkedInAtMidnight = members.subList(0, MEMBERS / 2);
+        for (Integer userId : checkedInAtMidnight) {
+            checkInToggleEngine.toggle(userId, today, today.atStartOfDay(), 0);
+        }
+
+        // Every swipe gets its own instant, as real swipes do, but they reach the database in any order
+        AtomicLong clock = new AtomicLong();
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Map<Integer, AtomicInteger> checkIns = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> checkOuts = new ConcurrentHashMap<>();
+        AtomicInteger bulkCheckedOut = new AtomicInteger();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Integer userId : members) {
+            for (int i = 0; i < TOGGLES_PER_MEMBER; i++) {
+                tasks.add(() -> {
+                    LocalDateTime now = base.plus(clock.incrementAndGet(), ChronoUnit.MICROS);
+                    CheckInToggleEngine.ToggleResult result = checkInToggleEngine.toggle(userId, today, now, 0);
+                    if (result.outcome() == CheckInToggleEngine.Outcome.CHECKED_IN) {
+                        checkIns.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                    } else if (result.outcome() == CheckInToggleEngine.Outcome.CHECKED_OUT) {
+                        checkOuts.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        for (int i = 0; i < BULK_CHECK_OUTS; i++) {
+            tasks.add(() -> {
+                CheckOutAllResultDTO result = attendanceService.checkOutAllUsers();
+                bulkCheckedOut.addAndGet(result.getCheckedOutCount());
+                return null;
+            });
+        }
+        Collections.shuffle(tasks);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> task : executor.invokeAll(tasks)) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        int closedByToggles = 0;
+        for (Integer userId : members) {
+            List<Map<String, Object>> sessions = jdbcTemplate.queryForList(
+                    "SELECT check_out_time, version FROM attendance WHERE user_id = ? AND attendance_date = ?", userId, today);
+            assertThat(sessions).as("sessions of member %d", userId).hasSize(1);
+            Map<String, Object> session = sessions.get(0);
+            long version = ((Number) session.get("version")).longValue();
+            // Only a check-out bumps the version, so a session closed twice would be at version 2
+            assertThat(version).as("version of member %d", userId).isEqualTo(session.get("check_out_time") == null ? 0L : 1L);
+
+            int memberCheckIns = checkIns.getOrDefault(userId, new AtomicInteger()).get();
+            int memberCheckOuts = checkOuts.getOrDefault(userId, new AtomicInteger()).get();
+            assertThat(memberCheckIns).as("check-ins of member %d", userId).isEqualTo(checkedInAtMidnight.contains(userId) ? 0 : 1);
+            assertThat(memberCheckOuts).as("check-outs of member %d", userId).isLessThanOrEqualTo(1);
+            if (memberCheckOuts == 1) {
+                assertThat(session.get("check_out_time")).isNotNull();
+            }
+            closedByToggles += memberCheckOuts;
+        }
+        // The bulk check-out may also close other tests' sessions, so only its lower bound is known here
+        int closedSessions = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM attendance WHERE attendance_date = ? AND check_out_time IS NOT NULL AND user_id IN ("
+                        + String.join(",", members.stream().map(String::valueOf).toList()) + ")", Integer.class, today);
+        assertThat(closedByToggles).isLessThanOrEqualTo(closedSessions);
+        assertThat(closedSessions - closedByToggles).isLessThanOrEqualTo(bulkCheckedOut.get());
+    }
+
+    void runThroughService() throws Exception {
+        LocalDate today = LocalDate.now();
+        Integer planId = testFixtures.createPlan(1000.0, 1).getPlanId();
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(testFixtures.createMember("Desk Stress Member " + i, planId));
+        }
+
+        // Each member's swipes are queued next to each other, so they race for the same row
+        Map<Integer, AtomicInteger> checkIns = new ConcurrentHashMap<>();
+        List<Callable<Void>> swipes = new ArrayList<>();
+        for (Integer userId : members) {
+            for (int i = 0; i < SWIPES_PER_ACTIVE_MEMBER; i++) {
+                swipes.add(() -> {
+                    try {
+                        AttendanceResponseDTO result = attendanceService.recordOrUpdateAttendance(userId);
+                        assertThat(result.getCheckOutTime()).isNull();
+                        checkIns.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Every later swipe falls inside the minimum stay
+                        assertThat(e.getMessage()).as("refusal for member %d", userId).startsWith("Check-out");
+                    }
+                    return null;
+                });
+            }
+        }
+
+        Object maxAgeMs = ReflectionTestUtils.getField(memberEligibilityCache, "maxAgeMs");
+        ReflectionTestUtils.setField(memberEligibilityCache, "maxAgeMs", 0L);
+        ExecutorService desks = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> swipe : desks.invokeAll(swipes)) {
+                swipe.get();
+            }
+        } finally {
+            desks.shutdown();
+            desks.awaitTermination(1, TimeUnit.MINUTES);
+            ReflectionTestUtils.setField(memberEligibilityCache, "maxAgeMs", maxAgeMs);
+        }
+
+        for (Integer userId : members) {
+            assertThat(checkIns.getOrDefault(userId, new AtomicInteger()).get()).as("check-ins of member %d", userId).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance WHERE user_id = ? AND attendance_date = ? "
+                    + "AND check_out_time IS NULL", Integer.class, userId, today)).isEqualTo(1);
+        }
+    }
+}
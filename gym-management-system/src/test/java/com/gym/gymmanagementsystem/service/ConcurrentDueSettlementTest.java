@@ -0,0 +1,90 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.PaymentDTO;
+import com.gym.gymmanagementsystem.dto.PaymentResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two desks settling part of the same due at the same moment. Both settlements must be recorded and the original
+ * payment's due must reflect both, which holds only because addPayment locks the original row
+ * (PaymentRepository.findByIdForUpdate) before reading its due.
+ */
+class ConcurrentDueSettlementTest extends PostgresIntegrationTest {
+
+    private static final int ROUNDS = 25;
+    private static final double PLAN_PRICE = 3000.0;
+    private static final double FIRST_PAYMENT = 1000.0;
+    private static final double SETTLEMENT_A = 500.0;
+    private static final double SETTLEMENT_B = 700.0;
+
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelSettlementsOfOneDueAreBothApplied() throws Exception {
+        Integer planId = testFixtures.createPlan(PLAN_PRICE, 3).getPlanId();
+        ExecutorService desks = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Integer userId = testFixtures.createMember("Settling Member " + round);
+                PaymentResponseDTO original = paymentService.addPayment(payment(userId, FIRST_PAYMENT, planId, null));
+                assertThat(original.getDueAmount()).isEqualTo(PLAN_PRICE - FIRST_PAYMENT);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<PaymentResponseDTO> first = desks.submit(() -> {
+                    start.await();
+                    return paymentService.addPayment(payment(userId, SETTLEMENT_A, null, original.getPaymentId()));
+                });
+                Future<PaymentResponseDTO> second = desks.submit(() -> {
+                    start.await();
+                    return paymentService.addPayment(payment(userId, SETTLEMENT_B, null, original.getPaymentId()));
+                });
+                start.countDown();
+                first.get(30, TimeUnit.SECONDS);
+                second.get(30, TimeUnit.SECONDS);
+
+                BigDecimal due = jdbcTemplate.queryForObject("SELECT due_amount FROM payments WHERE payment_id = ?",
+                        BigDecimal.class, original.getPaymentId());
+                assertThat(due).as("due after round %d", round)
+                        .isEqualByComparingTo(BigDecimal.valueOf(PLAN_PRICE - FIRST_PAYMENT - SETTLEMENT_A - SETTLEMENT_B));
+                List<BigDecimal> settlements = jdbcTemplate.queryForList("SELECT amount FROM payments "
+                        + "WHERE user_id = ? AND payment_id <> ? ORDER BY amount", BigDecimal.class, userId, original.getPaymentId());
+                assertThat(settlements).usingElementComparator(BigDecimal::compareTo)
+                        .containsExactly(BigDecimal.valueOf(SETTLEMENT_A), BigDecimal.valueOf(SETTLEMENT_B));
+            }
+        } finally {
+            desks.shutdown();
+            desks.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static PaymentDTO payment(Integer userId, double amount, Integer planId, Integer originalPaymentId) {
+        PaymentDTO dto = new PaymentDTO();
+        dto.setUserId(userId);
+        dto.setAmount(amount);
+        dto.setPaymentDate(LocalDate.now());
+        dto.setPaymentMethod("Cash");
+        dto.setMembershipPlanId(planId);
+        dto.setOriginalPaymentId(originalPaymentId);
+        return dto;
+    }
+}
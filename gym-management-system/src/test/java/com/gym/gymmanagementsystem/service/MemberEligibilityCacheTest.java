@@ -0,0 +1,103 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberEligibilityCacheTest {
+
+    private static final Integer USER_ID = 123456;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MemberEligibilityCache cache = new MemberEligibilityCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 300_000L);
+    }
+
+    @Test
+    void servesRepeatedSwipesFromTheCache() {
+        when(userRepository.findEligibilityByUserId(USER_ID)).thenReturn(Optional.of(view("Active")));
+
+        cache.get(USER_ID);
+        cache.get(USER_ID);
+
+        verify(userRepository, times(1)).findEligibilityByUserId(USER_ID);
+    }
+
+    @Test
+    void reloadsAfterTheMemberChanges() {
+        when(userRepository.findEligibilityByUserId(USER_ID))
+                .thenReturn(Optional.of(view("Active")), Optional.of(view("Expired")));
+
+        cache.get(USER_ID);
+        cache.onMemberChanged(MemberChangedEvent.of(USER_ID));
+
+        assertThat(cache.get(USER_ID)).get().extracting(MemberEligibilityCache.Eligibility::membershipStatus).isEqualTo("Expired");
+    }
+
+    @Test
+    void doesNotCacheARowReadBeforeAConcurrentCommit() {
+        // The read returns the pre-commit row, and the writer's after-commit eviction lands before the reader caches it
+        when(userRepository.findEligibilityByUserId(USER_ID))
+                .thenAnswer(invocation -> {
+                    cache.onMemberChanged(MemberChangedEvent.of(USER_ID));
+                    return Optional.of(view("Active"));
+                })
+                .thenReturn(Optional.of(view("Expired")));
+
+        assertThat(cache.get(USER_ID)).get().extracting(MemberEligibilityCache.Eligibility::membershipStatus).isEqualTo("Active");
+        assertThat(cache.get(USER_ID)).get().extracting(MemberEligibilityCache.Eligibility::membershipStatus).isEqualTo("Expired");
+        verify(userRepository, times(2)).findEligibilityByUserId(USER_ID);
+    }
+
+    @Test
+    void doesNotCacheARowReadBeforeABulkChange() {
+        when(userRepository.findEligibilityByUserId(USER_ID))
+                .thenAnswer(invocation -> {
+                    cache.onMemberChanged(MemberChangedEvent.allMembers());
+                    return Optional.of(view("Active"));
+                })
+                .thenReturn(Optional.of(view("Expired")));
+
+        cache.get(USER_ID);
+
+        assertThat(cache.get(USER_ID)).get().extracting(MemberEligibilityCache.Eligibility::membershipStatus).isEqualTo("Expired");
+    }
+
+    private static UserRepository.MemberEligibilityView view(String status) {
+        return new UserRepository.MemberEligibilityView() {
+            @Override
+            public Integer getUserId() {
+                return USER_ID;
+            }
+
+            @Override
+            public String getName() {
+                return "Desk Member";
+            }
+
+            @Override
+            public String getMembershipStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDate getCurrentPlanEndDate() {
+                return LocalDate.now().plusMonths(1);
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.dto.MemberSummaryDTO;
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemberSearchIndexApplyTest {
+
+    private static final Integer USER_ID = 123456;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MemberSearchIndex index = new MemberSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+    }
+
+    @Test
+    void laterEventForAMemberIsNotOverwrittenByAnEarlierSlowRead() throws Exception {
+        CountDownLatch firstReadMayReturn = new CountDownLatch(1);
+        // The first event's read is slow and returns the row as it was before the second commit
+        when(userRepository.findSearchViewsByUserIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    firstReadMayReturn.await(10, TimeUnit.SECONDS);
+                    return List.of(view("Old Name"));
+                })
+                .thenReturn(List.of(view("New Name")));
+
+        ExecutorService listeners = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = listeners.submit(() -> index.onMemberChanged(MemberChangedEvent.of(USER_ID)));
+            Thread.sleep(100);
+            Future<?> second = listeners.submit(() -> index.onMemberChanged(MemberChangedEvent.of(USER_ID)));
+            try {
+                // Without the read under the lock, the second event reads and writes while the first one is stuck
+                second.get(500, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Expected: it waits for the first event
+            }
+            firstReadMayReturn.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            listeners.shutdown();
+            listeners.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(index.search(USER_ID.toString(), 20)).extracting(MemberSummaryDTO::getName).containsExactly("New Name");
+    }
+
+    private static UserRepository.MemberSummaryView view(String name) {
+        return new UserRepository.MemberSummaryView() {
+            @Override
+            public Integer getUserId() {
+                return USER_ID;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getContactNumber() {
+                return "9876543210";
+            }
+
+            @Override
+            public String getMembershipStatus() {
+                return "Active";
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard search latency from MemberSearchIndex against the LIKE query it replaced (UserRepository.findBySearchQuery),
+ * over benchmark.members seeded members (default 150000). Only measures and logs; run it explicitly with
+ * {@code mvn test -Dtest=MemberSearchIndexBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberSearchIndexBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberSearchIndexBenchmarkTest.class);
+
+    private static final int FIRST_USER_ID = 700_000_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 25;
+    private static final String[] FIRST_NAMES = {"Ravi", "Priya", "Amit", "Sneha", "Rahul", "Anjali", "Vikram", "Pooja",
+            "Arjun", "Kavya", "Rohan", "Meera", "Karan", "Divya", "Suresh", "Neha"};
+    private static final String[] LAST_NAMES = {"Sharma", "Patel", "Kumar", "Singh", "Reddy", "Iyer", "Gupta", "Nair",
+            "Joshi", "Mehta", "Rao", "Das", "Shah", "Verma", "Pillai", "Bose"};
+
+    @Autowired
+    private MemberSearchIndex memberSearchIndex;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeSeededMembers() {
+        jdbcTemplate.update("DELETE FROM users WHERE user_id >= ?", FIRST_USER_ID);
+        memberSearchIndex.rebuild();
+    }
+
+    @Test
+    void compareIndexWithLikeQuery() {
+        int members = Integer.getInteger("benchmark.members", 150_000);
+        seedMembers(members);
+        long loadStarted = System.nanoTime();
+        memberSearchIndex.rebuild();
+        logger.info("Seeded {} members; index rebuilt in {} ms.", members,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStarted));
+
+        String exactId = String.valueOf(FIRST_USER_ID + members / 2);
+        for (String query : List.of("r", "ravi", "ravi s", exactId, "9000", "4321")) {
+            double indexMs = medianMillis(() -> memberSearchIndex.search(query, 20));
+            double likeMs = medianMillis(() -> userRepository.findBySearchQuery(query, PageRequest.of(0, 20)));
+            logger.info("Query '{}': index {} ms, LIKE {} ms (median of {} runs).", query,
+                    String.format("%.3f", indexMs), String.format("%.3f", likeMs), MEASURED_RUNS);
+        }
+    }
+
+    private void seedMembers(int members) {
+        Random random = new Random(42);
+        LocalDate joiningDate = LocalDate.now();
+        for (int start = 0; start < members; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(start + BATCH_SIZE, members); i++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String contactNumber = String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000));
+                batch.add(new Object[]{FIRST_USER_ID + i, name, contactNumber, joiningDate});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (user_id, name, age, gender, contact_number, membership_status, joining_date) "
+                    + "VALUES (?, ?, 30, 'Male', ?, 'Inactive', ?)", batch);
+        }
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    private static double medianMillis(Supplier<?> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.get();
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long started = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return nanos[MEASURED_RUNS / 2] / 1_000_000.0;
+    }
+}
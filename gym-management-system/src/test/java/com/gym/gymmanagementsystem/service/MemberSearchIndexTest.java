@@ -0,0 +1,53 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.MemberSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Searches the desk relies on: the tail of a phone number, and members written by another instance, which reach
+ * this index only through the periodic rebuild.
+ */
+class MemberSearchIndexTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MemberSearchIndex memberSearchIndex;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findsMembersByTheTailOfTheirContactNumber() {
+        String contactNumber = "+91 98" + TestFixtures.randomDigits(8);
+        Integer userId = testFixtures.insertMemberDirectly("Tail Search Member", contactNumber);
+        memberSearchIndex.rebuild();
+
+        String digits = contactNumber.replaceAll("\\D", "");
+        assertThat(memberSearchIndex.search(digits.substring(digits.length() - 4), 20))
+                .extracting(MemberSummaryDTO::getUserId).contains(userId);
+        assertThat(memberSearchIndex.search(digits.substring(4, 9), 20))
+                .extracting(MemberSummaryDTO::getUserId).contains(userId);
+        assertThat(memberSearchIndex.search(digits, 20))
+                .extracting(MemberSummaryDTO::getUserId).containsExactly(userId);
+    }
+
+    @Test
+    void rebuildPicksUpWritesMadeByAnotherInstance() {
+        String name = "Elsewhere" + TestFixtures.randomDigits(6);
+        Integer userId = testFixtures.insertMemberDirectly(name + " Member", TestFixtures.randomContactNumber());
+        assertThat(memberSearchIndex.search(name, 20)).isEmpty();
+
+        memberSearchIndex.rebuild();
+        assertThat(memberSearchIndex.search(name, 20)).extracting(MemberSummaryDTO::getUserId).containsExactly(userId);
+
+        jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+        memberSearchIndex.rebuild();
+        assertThat(memberSearchIndex.search(name, 20)).isEmpty();
+    }
+}
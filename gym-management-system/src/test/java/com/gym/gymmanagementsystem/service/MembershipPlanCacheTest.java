@@ -0,0 +1,64 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MembershipPlanCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MembershipPlanCache membershipPlanCache;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void hitsReloadOncePastMaxAge() {
+        Integer planId = testFixtures.createPlan(1000.0, 3).getPlanId();
+        assertThat(membershipPlanCache.getPlan(planId)).map(MembershipPlan::getPrice).contains(1000.0);
+
+        // A price change made by another instance, which sends this one no refresh
+        jdbcTemplate.update("UPDATE membership_plans SET price = 1500, duration_months = 6 WHERE plan_id = ?", planId);
+        assertThat(membershipPlanCache.getPlan(planId)).map(MembershipPlan::getPrice).contains(1000.0);
+
+        Object maxAgeMs = ReflectionTestUtils.getField(membershipPlanCache, "maxAgeMs");
+        ReflectionTestUtils.setField(membershipPlanCache, "maxAgeMs", 0L);
+        try {
+            MembershipPlan reloaded = membershipPlanCache.getPlan(planId).orElseThrow();
+            assertThat(reloaded.getPrice()).isEqualTo(1500.0);
+            assertThat(reloaded.getDurationMonths()).isEqualTo(6);
+        } finally {
+            ReflectionTestUtils.setField(membershipPlanCache, "maxAgeMs", maxAgeMs);
+        }
+    }
+
+    @Test
+    void handsOutUnmanagedCopies() {
+        Integer planId = testFixtures.createPlan(2000.0, 1).getPlanId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            membershipPlanCache.refresh();
+            MembershipPlan plan = membershipPlanCache.getPlan(planId).orElseThrow();
+            assertThat(entityManager.contains(plan)).isFalse();
+            plan.setPrice(1.0);
+        });
+
+        assertThat(membershipPlanCache.getPlan(planId)).map(MembershipPlan::getPrice).contains(2000.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM membership_plans WHERE plan_id = ?", Double.class, planId))
+                .isEqualTo(2000.0);
+    }
+}
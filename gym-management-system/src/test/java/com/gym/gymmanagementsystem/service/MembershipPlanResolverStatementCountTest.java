@@ -0,0 +1,92 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.PaymentDTO;
+import com.gym.gymmanagementsystem.dto.PaymentResponseDTO;
+import com.gym.gymmanagementsystem.dto.UserResponseDTO;
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mapping a page of users or payments must resolve plan names without one query per row:
+ * the page query plus, at most, its count query.
+ */
+class MembershipPlanResolverStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int PAGE_SIZE = 30;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<MembershipPlan> plans = new ArrayList<>();
+
+    @BeforeEach
+    void createPlans() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        plans.clear();
+        for (int i = 0; i < 3; i++) {
+            plans.add(testFixtures.createPlan(1000.0 * (i + 1), i + 1));
+        }
+    }
+
+    @Test
+    void userPageResolvesPlansWithoutPerRowQueries() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            testFixtures.createMember("Member " + i, plans.get(i % plans.size()).getPlanId());
+        }
+
+        statistics.clear();
+        Page<UserResponseDTO> page = userService.getAllUsers(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "joiningDate")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).filteredOn(dto -> dto.getCurrentPlanId() != null)
+                .allSatisfy(dto -> assertThat(dto.getCurrentPlanName()).isNotNull().isNotEqualTo("Unknown Plan"));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void paymentPageResolvesPlansWithoutPerRowQueries() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Integer userId = testFixtures.createMember("Payer " + i);
+            PaymentDTO payment = new PaymentDTO();
+            payment.setUserId(userId);
+            payment.setAmount(500.0);
+            payment.setPaymentDate(LocalDate.now());
+            payment.setPaymentMethod("Cash");
+            payment.setMembershipPlanId(plans.get(i % plans.size()).getPlanId());
+            paymentService.addPayment(payment);
+        }
+
+        statistics.clear();
+        Page<PaymentResponseDTO> page = paymentService.getAllPayments(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "paymentId")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getUserName()).isNotNull();
+            assertThat(dto.getMembershipPlanName()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.MySqlIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MySqlCheckInToggleEngineTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private CheckInToggleEngine checkInToggleEngine;
+    @Autowired
+    private AttendanceService attendanceService;
+    @Autowired
+    private MemberEligibilityCache memberEligibilityCache;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void selectsMySqlEngine() {
+        assertThat(checkInToggleEngine).isInstanceOf(MySqlCheckInToggleEngine.class);
+    }
+
+    @Test
+    void concurrentTogglesLeaveOneSessionPerMemberPerDay() throws Exception {
+        scenario().run();
+    }
+
+    @Test
+    void racingDeskSwipesWithColdEligibilityCacheCheckInOnce() throws Exception {
+        scenario().runThroughService();
+    }
+
+    private CheckInToggleStressScenario scenario() {
+        return new CheckInToggleStressScenario(checkInToggleEngine, attendanceService, memberEligibilityCache, testFixtures,
+                jdbcTemplate);
+    }
+}
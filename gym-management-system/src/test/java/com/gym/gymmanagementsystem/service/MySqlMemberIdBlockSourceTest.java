@@ -0,0 +1,38 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.MySqlIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MySqlMemberIdBlockSourceTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private MemberIdBlockSource memberIdBlockSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reservationCommitsIndependentlyOfTheCaller() throws Exception {
+        assertThat(memberIdBlockSource).isInstanceOf(MySqlMemberIdBlockSource.class);
+
+        long[] counters = new long[2];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            counters[0] = memberIdBlockSource.reserveBlock().firstCounter();
+            // The counter row must not stay locked until this caller finishes
+            counters[1] = CompletableFuture.supplyAsync(() -> memberIdBlockSource.reserveBlock().firstCounter())
+                    .orTimeout(10, TimeUnit.SECONDS).join();
+            status.setRollbackOnly(); // e.g. addUser failing on an unknown plan
+        });
+        long afterRollback = memberIdBlockSource.reserveBlock().firstCounter();
+
+        assertThat(counters[1]).isEqualTo(counters[0] + MemberIdBlockSource.BLOCK_SIZE);
+        assertThat(afterRollback).isEqualTo(counters[1] + MemberIdBlockSource.BLOCK_SIZE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresAttendanceSummaryEngineTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AttendanceSummaryEngine attendanceSummaryEngine;
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void selectsPostgresEngine() {
+        assertThat(attendanceSummaryEngine).isInstanceOf(PostgresAttendanceSummaryEngine.class);
+    }
+
+    @Test
+    void summarizesCompletedSessionsIncrementally() {
+        new AttendanceSummaryScenario(jdbcTemplate, testFixtures, attendanceSummaryService).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.gym.gymmanagementsystem.service;
+
+import com.gym.gymmanagementsystem.PostgresIntegrationTest;
+import com.gym.gymmanagementsystem.TestFixtures;
+import com.gym.gymmanagementsystem.dto.UserDTO;
+import com.gym.gymmanagementsystem.model.MembershipPlan;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creating a member is one INSERT (no merge SELECT for the assigned ID, no follow-up UPDATE for the status), and
+ * updating one is its SELECT plus one UPDATE. Counted inside the write's transaction, before commit, so the
+ * MemberChangedEvent listeners' own reads after commit are left out.
+ */
+class UserWriteStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TestFixtures testFixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private MembershipPlan plan;
+
+    private record WriteCounts(long inserts, long updates, long statements) {
+    }
+
+    @BeforeEach
+    void createPlan() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        plan = testFixtures.createPlan(2000.0, 6);
+    }
+
+    @Test
+    void addUserIssuesASingleInsert() {
+        // Reserves an ID block up front, so the measured create draws from memory
+        testFixtures.createMember("Warm-up Member");
+
+        WriteCounts counts = countedWrite(() ->
+                assertThat(userService.addUser(TestFixtures.memberDto("Counted Member", plan.getPlanId())).getMembershipStatus()).isEqualTo("Active"));
+
+        assertThat(counts).isEqualTo(new WriteCounts(1, 0, 1));
+    }
+
+    @Test
+    void updateUserIssuesASingleUpdate() {
+        Integer userId = testFixtures.createMember("Member Before Update");
+        UserDTO changes = TestFixtures.memberDto("Member After Update", plan.getPlanId());
+
+        WriteCounts counts = countedWrite(() ->
+                assertThat(userService.updateUser(userId, changes).getMembershipStatus()).isEqualTo("Active"));
+
+        // The findById SELECT and the UPDATE
+        assertThat(counts).isEqualTo(new WriteCounts(0, 1, 2));
+    }
+
+    private WriteCounts countedWrite(Runnable write) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            statistics.clear();
+            write.run();
+            status.flush();
+            return new WriteCounts(statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+                    statistics.getPrepareStatementCount());
+        });
+    }
+}